@@ -0,0 +1,39 @@
+package learn.resilience4j.loadtest;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// 부하 테스트 동안의 서킷 브레이커 상태 전이. 시각은 부하 테스트를 시작한 시각부터 잰 밀리초
+public class CircuitBreakerTimeline {
+
+    private final List<Transition> transitions = new CopyOnWriteArrayList<>();
+
+    private volatile long startedAt = System.nanoTime();
+
+    public CircuitBreakerTimeline(CircuitBreakerRegistry registry) {
+        registry.getAllCircuitBreakers().forEach(this::register);
+        registry.getEventPublisher().onEntryAdded(event -> register(event.getAddedEntry()));
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+        transitions.clear();
+    }
+
+    public List<Transition> getTransitions() {
+        return List.copyOf(transitions);
+    }
+
+    private void register(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> transitions.add(
+            new Transition(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), circuitBreaker.getName(),
+                           event.getStateTransition().getFromState(), event.getStateTransition().getToState())));
+    }
+
+    public record Transition(long atMillis, String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+
+    }
+}
@@ -0,0 +1,20 @@
+package learn.resilience4j.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import learn.resilience4j.loadtest.CircuitBreakerTimeline.Transition;
+import learn.resilience4j.loadtest.OpenLoopLoadGenerator.TargetResult;
+
+// downstreamAmplification: StubDownstream이 받은 호출 수 / StubDownstream을 호출하는 경로(StubDownstream.TARGETS)의 요청 수. 재시도와 hedging으로 늘어난 만큼 1보다 크다
+public record LoadReport(int rps,
+                         long durationMillis,
+                         Map<String, TargetResult> targets,
+                         List<Transition> circuitBreakerTimeline,
+                         long downstreamCalls,
+                         double downstreamAmplification,
+                         Map<String, RetryResult> retries) {
+
+    public record RetryResult(long successfulWithoutRetry, long successfulWithRetry, long failedWithoutRetry, long failedWithRetry) {
+
+    }
+}
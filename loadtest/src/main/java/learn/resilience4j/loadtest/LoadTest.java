@@ -0,0 +1,104 @@
+package learn.resilience4j.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import learn.resilience4j.Application;
+import learn.resilience4j.loadtest.LoadReport.RetryResult;
+import learn.resilience4j.loadtest.OpenLoopLoadGenerator.TargetResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 애플리케이션을 StubDownstream과 함께 띄우고 loadtest.targets를 loadtest.rps로 호출한 뒤 loadtest.report에 JSON으로 남긴다
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(Application.class, LoadTestConfiguration.class);
+        application.setDefaultProperties(Map.of(
+            "server.port", "0",
+            "spring.main.allow-bean-definition-overriding", "true",
+            "logging.level.root", "warn",
+            "logging.level.learn.resilience4j.loadtest", "info"
+        ));
+
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            LoadReport report = run(context);
+
+            LoadTestProperties properties = context.getBean(LoadTestProperties.class);
+            if (properties.getReport().getParent() != null) {
+                Files.createDirectories(properties.getReport().getParent());
+            }
+            writer().writeValue(properties.getReport().toFile(), report);
+            log.info("Report written to {}\n{}", properties.getReport().toAbsolutePath(), writer().writeValueAsString(report));
+        }
+    }
+
+    static LoadReport run(ConfigurableApplicationContext context) throws InterruptedException {
+        LoadTestProperties properties = context.getBean(LoadTestProperties.class);
+        StubDownstream downstream = context.getBean(StubDownstream.class);
+        RetryRegistry retryRegistry = context.getBean(RetryRegistry.class);
+        CircuitBreakerTimeline timeline = new CircuitBreakerTimeline(context.getBean(CircuitBreakerRegistry.class));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(URI.create("http://localhost:" + port), properties.getTargets(), properties.getRequestTimeout());
+
+        properties.getTargets().keySet().stream()
+                  .filter(target -> !StubDownstream.TARGETS.contains(target))
+                  .forEach(target -> log.info("{} does not call StubDownstream. It measures the resilience4j decorators only", target));
+
+        Map<String, RetryResult> retriesBefore = retries(retryRegistry);
+        long downstreamCallsBefore = downstream.getCalls();
+        downstream.start();
+        timeline.start();
+        log.info("Running {} rps for {} against {}", properties.getRps(), properties.getDuration(), properties.getTargets().keySet());
+
+        Map<String, TargetResult> results = generator.run(properties.getRps(), properties.getDuration());
+
+        long downstreamCalls = downstream.getCalls() - downstreamCallsBefore;
+        long downstreamRequests = results.entrySet().stream()
+                                         .filter(result -> StubDownstream.TARGETS.contains(result.getKey()))
+                                         .mapToLong(result -> result.getValue().requests())
+                                         .sum();
+
+        return new LoadReport(properties.getRps(), properties.getDuration().toMillis(), results, timeline.getTransitions(),
+                              downstreamCalls, downstreamRequests == 0 ? 0 : (double) downstreamCalls / downstreamRequests,
+                              difference(retries(retryRegistry), retriesBefore));
+    }
+
+    private static Map<String, RetryResult> retries(RetryRegistry registry) {
+        Map<String, RetryResult> retries = new TreeMap<>();
+        for (Retry retry : registry.getAllRetries()) {
+            Retry.Metrics metrics = retry.getMetrics();
+            retries.put(retry.getName(), new RetryResult(metrics.getNumberOfSuccessfulCallsWithoutRetryAttempt(), metrics.getNumberOfSuccessfulCallsWithRetryAttempt(),
+                                                         metrics.getNumberOfFailedCallsWithoutRetryAttempt(), metrics.getNumberOfFailedCallsWithRetryAttempt()));
+        }
+        return retries;
+    }
+
+    private static Map<String, RetryResult> difference(Map<String, RetryResult> after, Map<String, RetryResult> before) {
+        Map<String, RetryResult> difference = new TreeMap<>();
+        after.forEach((name, result) -> {
+            RetryResult previous = before.getOrDefault(name, new RetryResult(0, 0, 0, 0));
+            difference.put(name, new RetryResult(result.successfulWithoutRetry() - previous.successfulWithoutRetry(),
+                                                 result.successfulWithRetry() - previous.successfulWithRetry(),
+                                                 result.failedWithoutRetry() - previous.failedWithoutRetry(),
+                                                 result.failedWithRetry() - previous.failedWithRetry()));
+        });
+        return difference;
+    }
+
+    private static ObjectWriter writer() {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writer();
+    }
+}
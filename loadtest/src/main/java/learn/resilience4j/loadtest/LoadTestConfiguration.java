@@ -0,0 +1,17 @@
+package learn.resilience4j.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 애플리케이션의 Downstream 빈을 같은 이름의 StubDownstream으로 바꾼다(spring.main.allow-bean-definition-overriding)
+@Configuration
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfiguration {
+
+    @Bean
+    public StubDownstream downstream(LoadTestProperties properties, MeterRegistry meterRegistry) {
+        return new StubDownstream(properties.getStub(), meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package learn.resilience4j.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("loadtest")
+@Getter
+@Setter
+public class LoadTestProperties {
+
+    // 응답을 기다리지 않고 이 간격으로 요청을 보낸다(open-loop)
+    private int rps = 200;
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    // 응답을 이 시간보다 오래 기다리지 않는다. 시간이 지나면 status -1로 기록한다
+    private Duration requestTimeout = Duration.ofSeconds(30);
+
+    // 경로별 비중. StubDownstream을 호출하는 경로는 StubDownstream.TARGETS뿐이다
+    private Map<String, Integer> targets = new LinkedHashMap<>(Map.of(
+        "/serverA/success", 1,
+        "/serverA/slowness", 1,
+        "/serverB/success", 1,
+        "/serverC/success", 1,
+        "/serverC/slowness", 1
+    ));
+
+    private Path report = Path.of("build/loadtest-report.json");
+
+    private Stub stub = new Stub();
+
+    @Getter
+    @Setter
+    public static class Stub {
+
+        // 지연은 로그 정규 분포를 따른다
+        private Duration medianLatency = Duration.ofMillis(20);
+
+        private Duration p99Latency = Duration.ofMillis(200);
+
+        private double errorRate = 0.01;
+
+        // 부하 테스트를 시작한 시각부터 잰 구간. 이 동안에는 모든 호출이 실패한다
+        private List<Outage> outages = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Outage {
+
+        private Duration start;
+
+        private Duration end;
+    }
+}
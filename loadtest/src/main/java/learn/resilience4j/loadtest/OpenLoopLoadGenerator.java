@@ -0,0 +1,140 @@
+package learn.resilience4j.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// 응답과 상관없이 i번째 요청을 시작 시각 + i / rps에 보낸다(open-loop)
+// 지연은 보낸 시각이 아니라 보내기로 한 시각부터 잰다. 서버가 밀려서 요청을 늦게 보내게 되어도 그 대기가 지연에 포함된다(coordinated omission 보정)
+public class OpenLoopLoadGenerator {
+
+    private final URI baseUri;
+
+    private final Map<String, Integer> targets;
+
+    private final Duration requestTimeout;
+
+    public OpenLoopLoadGenerator(URI baseUri, Map<String, Integer> targets, Duration requestTimeout) {
+        this.baseUri = baseUri;
+        this.targets = targets;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Map<String, TargetResult> run(int rps, Duration duration) throws InterruptedException {
+        List<String> schedule = schedule();
+        Map<String, TargetRecorder> recorders = new LinkedHashMap<>();
+        targets.keySet().forEach(path -> recorders.put(path, new TargetRecorder()));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder().executor(executor).build();
+        // 끝나지 않은 요청 수. 요청을 모두 보낼 때까지 보내는 쪽도 하나로 센다
+        // 응답을 모아 두지 않으므로 보낸 요청 수가 아니라 동시에 진행 중인 요청 수만큼만 메모리를 쓴다
+        AtomicLong outstanding = new AtomicLong(1);
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        try {
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+            long requests = duration.toNanos() / intervalNanos;
+            long start = System.nanoTime();
+
+            for (long i = 0; i < requests; i++) {
+                long scheduledAt = start + i * intervalNanos;
+                LockSupport.parkNanos(scheduledAt - System.nanoTime());
+
+                String path = schedule.get((int) (i % schedule.size()));
+                TargetRecorder recorder = recorders.get(path);
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(requestTimeout).GET().build();
+                outstanding.incrementAndGet();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                      .whenComplete((response, e) -> {
+                          recorder.record(scheduledAt, response == null ? -1 : response.statusCode());
+                          if (outstanding.decrementAndGet() == 0) {
+                              drained.complete(null);
+                          }
+                      });
+            }
+
+            if (outstanding.decrementAndGet() == 0) {
+                drained.complete(null);
+            }
+            drained.join();
+
+            long elapsed = System.nanoTime() - start;
+            Map<String, TargetResult> results = new LinkedHashMap<>();
+            recorders.forEach((path, recorder) -> results.put(path, recorder.result(elapsed)));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // 비중대로 경로를 고르게 섞은 순서. 비중이 2:1이면 A, B, A, A, B, A, ...
+    private List<String> schedule() {
+        int total = targets.values().stream().mapToInt(Integer::intValue).sum();
+        Map<String, Integer> scheduled = new LinkedHashMap<>();
+        List<String> schedule = new ArrayList<>(total);
+        for (int slot = 1; slot <= total; slot++) {
+            String next = null;
+            double largestDeficit = Double.NEGATIVE_INFINITY;
+            for (Map.Entry<String, Integer> target : targets.entrySet()) {
+                double deficit = (double) target.getValue() * slot / total - scheduled.getOrDefault(target.getKey(), 0);
+                if (deficit > largestDeficit) {
+                    largestDeficit = deficit;
+                    next = target.getKey();
+                }
+            }
+            scheduled.merge(next, 1, Integer::sum);
+            schedule.add(next);
+        }
+        return schedule;
+    }
+
+    private static class TargetRecorder {
+
+        // 1µs ~ 1분
+        private final Histogram latencies = new ConcurrentHistogram(1, TimeUnit.MINUTES.toMicros(1), 3);
+
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long scheduledAt, int status) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt), latencies.getHighestTrackableValue()));
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        TargetResult result(long elapsedNanos) {
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            long requests = latencies.getTotalCount();
+            return new TargetResult(requests, requests * 1e9 / elapsedNanos, counts,
+                                    millis(latencies.getValueAtPercentile(50)),
+                                    millis(latencies.getValueAtPercentile(90)),
+                                    millis(latencies.getValueAtPercentile(99)),
+                                    millis(latencies.getValueAtPercentile(99.9)),
+                                    millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+
+    // 지연의 단위는 밀리초
+    public record TargetResult(long requests, double throughput, Map<Integer, Long> statuses, double p50, double p90, double p99, double p999, double max) {
+
+    }
+}
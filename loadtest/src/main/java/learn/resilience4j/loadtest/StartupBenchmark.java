@@ -0,0 +1,120 @@
+package learn.resilience4j.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+// 실행 파일(jar 또는 native image)을 프로세스로 띄우고 /serverA/success가 처음 200을 응답할 때까지 걸린 시간과 그때의 RSS를 잰다
+// 인자: --runs=<반복 횟수> <이름>=<경로>... 경로가 .jar로 끝나면 java -jar로 실행한다. 없는 경로는 건너뛴다
+// RSS는 /proc/<pid>/status의 VmRSS를 읽으므로 Linux에서만 잰다
+@Slf4j
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    record Run(long timeToFirstRequestMillis, long rssKilobytes) {
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 10;
+        Map<String, Path> targets = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else {
+                int separator = arg.indexOf('=');
+                targets.put(arg.substring(0, separator), Path.of(arg.substring(separator + 1)));
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        for (Map.Entry<String, Path> target : targets.entrySet()) {
+            if (!Files.exists(target.getValue())) {
+                log.warn("{}: {} not found. Skipping", target.getKey(), target.getValue());
+                continue;
+            }
+            List<Run> results = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                results.add(run(client, target.getValue()));
+            }
+            report(target.getKey(), results);
+        }
+    }
+
+    static Run run(HttpClient client, Path executable) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        if (executable.toString().endsWith(".jar")) {
+            command.addAll(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar"));
+        }
+        command.addAll(List.of(executable.toString(), "--server.port=" + port, "--logging.level.root=warn"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/serverA/success")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(executable + " exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, BodyHandlers.discarding()).statusCode() == 200) {
+                        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        return new Run(elapsed, rssKilobytes(process.pid()));
+                    }
+                } catch (IOException e) {
+                    // 아직 포트를 열지 않았다
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(executable + " did not respond within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void report(String name, List<Run> results) {
+        long[] startup = results.stream().mapToLong(Run::timeToFirstRequestMillis).sorted().toArray();
+        long[] rss = results.stream().mapToLong(Run::rssKilobytes).sorted().toArray();
+        log.info("{}: time to first request median {} ms (min {}, max {}), RSS median {} MB (min {}, max {}), runs {}",
+                 name, startup[startup.length / 2], startup[0], startup[startup.length - 1],
+                 rss[rss.length / 2] / 1024, rss[0] / 1024, rss[rss.length - 1] / 1024, results.size());
+    }
+
+    private static long rssKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("[^0-9]", "")))
+                    .findFirst()
+                    .orElse(-1);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package learn.resilience4j.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import learn.resilience4j.loadtest.LoadTestProperties.Outage;
+import learn.resilience4j.loadtest.LoadTestProperties.Stub;
+import learn.resilience4j.service.Downstream;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 애플리케이션의 Downstream을 대신하는 원격 서비스
+// 호출마다 로그 정규 분포에서 뽑은 지연만큼 기다리고, error-rate의 확률로 또는 장애 구간에는 항상 실패한다
+// Downstream을 호출하는 경로는 TARGETS뿐이다. 나머지 경로(serverA/B의 success, failure 등)는 원격 호출 없이 바로 응답하거나 실패하므로
+// 그 경로의 결과는 지연 분포, error-rate, 장애 구간과 상관없이 resilience4j 데코레이터의 비용과 동작만 보여준다
+public class StubDownstream extends Downstream {
+
+    public static final Set<String> TARGETS = Set.of("/serverA/slowness", "/serverC/slowness", "/serverC/async/slowness", "/serverC/failure");
+
+    // 표준 정규 분포의 99 백분위
+    private static final double Z_99 = 2.326;
+
+    private final Stub properties;
+
+    private final double mu;
+
+    private final double sigma;
+
+    private final LongAdder calls = new LongAdder();
+
+    private volatile long startedAt = System.nanoTime();
+
+    public StubDownstream(Stub properties, MeterRegistry meterRegistry) {
+        super(properties.getMedianLatency(), meterRegistry);
+        this.properties = properties;
+        this.mu = Math.log(properties.getMedianLatency().toNanos());
+        this.sigma = Math.log((double) properties.getP99Latency().toNanos() / properties.getMedianLatency().toNanos()) / Z_99;
+    }
+
+    @Override
+    public String slowness() {
+        calls.increment();
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        for (Outage outage : properties.getOutages()) {
+            if (elapsed.compareTo(outage.getStart()) >= 0 && elapsed.compareTo(outage.getEnd()) < 0) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE, "Outage");
+            }
+        }
+
+        call(sampleLatency());
+
+        if (ThreadLocalRandom.current().nextDouble() < properties.getErrorRate()) {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Injected error");
+        }
+        return "Slowness";
+    }
+
+    // 항상 실패하는 원격 호출도 같은 지연 분포만큼 기다린 뒤 실패한다
+    @Override
+    public String failure() {
+        calls.increment();
+
+        call(sampleLatency());
+
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+
+    // 장애 구간은 이 시각부터 잰다
+    public void start() {
+        startedAt = System.nanoTime();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    private Duration sampleLatency() {
+        return Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
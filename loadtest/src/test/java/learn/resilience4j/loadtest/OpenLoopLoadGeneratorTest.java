@@ -0,0 +1,60 @@
+package learn.resilience4j.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import learn.resilience4j.loadtest.OpenLoopLoadGenerator.TargetResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OpenLoopLoadGeneratorTest {
+
+    // 요청을 한 번에 하나씩 50ms 걸려 처리하므로 초당 20개까지 처리할 수 있다
+    private static final long SERVICE_TIME_MILLIS = 50;
+
+    HttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVICE_TIME_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = exchange.getRequestURI().getPath().endsWith("/failure") ? 500 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("처리량보다 많이 보내면 보내기로 한 시각부터 잰 지연이 처리 시간보다 훨씬 커진다")
+    void t1() throws Exception {
+        Map<String, Integer> targets = new LinkedHashMap<>();
+        targets.put("/serverA/success", 3);
+        targets.put("/serverB/failure", 1);
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(URI.create("http://127.0.0.1:" + server.getAddress().getPort()), targets, Duration.ofSeconds(10));
+
+        Map<String, TargetResult> results = generator.run(40, Duration.ofSeconds(1));
+
+        assertThat(results.get("/serverA/success").statuses()).containsEntry(200, 30L);
+        assertThat(results.get("/serverB/failure").statuses()).containsEntry(500, 10L);
+        // 40개를 처리하는 데 2초가 걸리므로 마지막 요청은 보내기로 한 시각부터 약 1초를 기다린다
+        assertThat(results.get("/serverA/success").max()).isGreaterThan(SERVICE_TIME_MILLIS * 10);
+    }
+}
@@ -0,0 +1,300 @@
+package learn.resilience4j.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+// @CircuitBreaker, @Retry가 붙은 메서드를 재정의해 Decoration으로 직접 호출하는 하위 클래스(<클래스>Decorator)를 만든다
+// generated-decorators.enabled=true이면 GeneratedDecoratorRegistrar가 빈 클래스를 이 하위 클래스로 바꾸므로
+// 재정의한 메서드는 AOP 프록시의 resilience4j 애스펙트를 거치지 않는다
+//
+// 재정의하지 않는 메서드
+// - resilience4j 애스펙트 사이에서 실행되는 애스펙트(@Hedged)나 직접 만들지 않는 애스펙트(@TimeLimiter, @RateLimiter)가 붙은 메서드
+// - CompletionStage, Mono, Flux를 반환하는 메서드
+// - private, final, static 메서드와 타입 매개변수가 있는 메서드
+// 이 메서드들은 상위 클래스의 애너테이션이 그대로 남아 있으므로 지금처럼 AOP 프록시가 처리한다
+@SupportedAnnotationTypes({
+    DecoratorProcessor.CIRCUIT_BREAKER,
+    DecoratorProcessor.RETRY
+})
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+public class DecoratorProcessor extends AbstractProcessor {
+
+    static final String CIRCUIT_BREAKER = "io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker";
+
+    static final String RETRY = "io.github.resilience4j.retry.annotation.Retry";
+
+    static final String BULKHEAD = "io.github.resilience4j.bulkhead.annotation.Bulkhead";
+
+    static final String INDEX = "META-INF/generated-decorators.properties";
+
+    private static final Set<String> DECORATED = Set.of(CIRCUIT_BREAKER, RETRY, BULKHEAD);
+
+    private static final Set<String> UNSUPPORTED = Set.of("io.github.resilience4j.timelimiter.annotation.TimeLimiter",
+                                                          "io.github.resilience4j.ratelimiter.annotation.RateLimiter",
+                                                          "learn.resilience4j.hedging.annotation.Hedged");
+
+    private static final Set<String> ASYNC_TYPES = Set.of("java.util.concurrent.CompletionStage",
+                                                          "java.util.concurrent.CompletableFuture",
+                                                          "reactor.core.publisher.Mono",
+                                                          "reactor.core.publisher.Flux");
+
+    private static final String INITIALIZING_BEAN = "org.springframework.beans.factory.InitializingBean";
+
+    private static final String DECORATION = "learn.resilience4j.decorator.Decoration";
+
+    private static final String DECORATION_FACTORY = "learn.resilience4j.decorator.DecorationFactory";
+
+    // 원래 클래스 -> 생성한 클래스. 마지막 라운드에 INDEX로 쓴다
+    private final Map<String, String> generated = new LinkedHashMap<>();
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.METHOD && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (TypeElement type : types) {
+            List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                                                           .filter(this::isDecoratable)
+                                                           .collect(Collectors.toList());
+            if (!methods.isEmpty() && isExtendable(type)) {
+                generate(type, methods);
+            }
+        }
+        // 다른 애스펙트와 프로세서도 이 애너테이션을 사용하므로 가져가지 않는다
+        return false;
+    }
+
+    private boolean isDecoratable(ExecutableElement method) {
+        Set<String> names = method.getAnnotationMirrors().stream()
+                                  .map(mirror -> annotationName(mirror))
+                                  .collect(Collectors.toSet());
+        if (!names.contains(CIRCUIT_BREAKER) && !names.contains(RETRY)) {
+            return false;
+        }
+        if (names.stream().anyMatch(UNSUPPORTED::contains)) {
+            return false;
+        }
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+            return false;
+        }
+        if (!method.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        TypeMirror returnType = processingEnv.getTypeUtils().erasure(method.getReturnType());
+        return !ASYNC_TYPES.contains(returnType.toString());
+    }
+
+    private boolean isExtendable(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.FINAL) || type.getNestingKind().isNested()) {
+            processingEnv.getMessager().printMessage(Kind.NOTE, "Not generating a decorator for a final or nested class", type);
+            return false;
+        }
+        boolean hasLombokConstructor = type.getAnnotationMirrors().stream()
+                                           .map(mirror -> annotationName(mirror))
+                                           .anyMatch(name -> name.equals("lombok.RequiredArgsConstructor") || name.equals("lombok.AllArgsConstructor"));
+        boolean onlyDefaultConstructor = constructors(type).stream().allMatch(constructor -> constructor.getParameters().isEmpty());
+        if (hasLombokConstructor && onlyDefaultConstructor && hasInstanceFields(type)) {
+            // lombok이 먼저 실행되어야 생성자가 보인다. annotationProcessor에서 lombok이 이 프로세서보다 앞에 있어야 한다
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Lombok constructor is not visible. Put lombok before the decorator processor", type);
+            return false;
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type, List<ExecutableElement> methods) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = type.getSimpleName() + "Decorator";
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String superName = type.getQualifiedName().toString();
+        boolean initializingBean = processingEnv.getTypeUtils().isAssignable(type.asType(), processingEnv.getElementUtils().getTypeElement(INITIALIZING_BEAN).asType());
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\"" + DecoratorProcessor.class.getName() + "\")");
+            out.println("public class " + simpleName + " extends " + superName + " implements " + INITIALIZING_BEAN + " {");
+            out.println();
+            out.println("    private " + DECORATION_FACTORY + " decorationFactory$;");
+            for (int i = 0; i < methods.size(); i++) {
+                out.println();
+                out.println("    private " + DECORATION + " " + fieldName(methods, i) + ";");
+            }
+
+            for (ExecutableElement constructor : constructors(type)) {
+                if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                    continue;
+                }
+                out.println();
+                out.println("    public " + simpleName + "(" + parameters(constructor) + ")" + throwsClause(constructor) + " {");
+                out.println("        super(" + arguments(constructor) + ");");
+                out.println("    }");
+            }
+
+            out.println();
+            out.println("    @org.springframework.beans.factory.annotation.Autowired");
+            out.println("    public void setDecorationFactory$(" + DECORATION_FACTORY + " decorationFactory) {");
+            out.println("        this.decorationFactory$ = decorationFactory;");
+            out.println("    }");
+
+            // FallbackDispatchTable이 이 빈을 처리한 뒤에 만든다
+            out.println();
+            out.println("    @Override");
+            out.println("    public void afterPropertiesSet() throws Exception {");
+            if (initializingBean) {
+                out.println("        super.afterPropertiesSet();");
+            }
+            for (int i = 0; i < methods.size(); i++) {
+                ExecutableElement method = methods.get(i);
+                String parameterTypes = method.getParameters().stream()
+                                              .map(parameter -> processingEnv.getTypeUtils().erasure(parameter.asType()) + ".class")
+                                              .collect(Collectors.joining(", "));
+                out.println("        this." + fieldName(methods, i) + " = decorationFactory$.create(" + superName + ".class, \"" + method.getSimpleName() + "\""
+                            + (parameterTypes.isEmpty() ? "" : ", " + parameterTypes) + ");");
+            }
+            out.println("    }");
+
+            for (int i = 0; i < methods.size(); i++) {
+                writeMethod(out, methods.get(i), fieldName(methods, i));
+            }
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Failed to generate " + qualifiedName + ": " + e, type);
+            return;
+        }
+        generated.put(superName, qualifiedName);
+    }
+
+    private void writeMethod(PrintWriter out, ExecutableElement method, String fieldName) {
+        String name = method.getSimpleName().toString();
+        boolean isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+        String arguments = arguments(method);
+        String visibility = method.getModifiers().contains(Modifier.PUBLIC) ? "public "
+                            : method.getModifiers().contains(Modifier.PROTECTED) ? "protected " : "";
+
+        out.println();
+        out.println("    @Override");
+        // 다른 애스펙트(@CachedResponse, @Coalesced 등)는 계속 AOP 프록시가 처리하도록 옮겨 붙인다
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!DECORATED.contains(annotationName(mirror)) && isRuntimeRetained(mirror)) {
+                out.println("    " + mirror);
+            }
+        }
+        out.println("    " + visibility + method.getReturnType() + " " + name + "(" + parameters(method) + ")" + throwsClause(method) + " {");
+        String call = "super." + name + "(" + arguments + ")";
+        String supplier = isVoid ? "() -> { " + call + "; return null; }" : "() -> " + call;
+        String invocation = fieldName + ".call(this, new Object[]{" + arguments + "}, " + supplier + ")";
+        out.println("        " + (isVoid ? invocation : "return " + invocation) + ";");
+        out.println("    }");
+    }
+
+    private void writeIndex() {
+        if (generated.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = index.openWriter()) {
+                for (Map.Entry<String, String> entry : generated.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Failed to write " + INDEX + ": " + e);
+        }
+    }
+
+    // 오버로드한 메서드도 구분하도록 순번을 붙인다
+    private static String fieldName(List<ExecutableElement> methods, int index) {
+        return methods.get(index).getSimpleName() + "$" + index;
+    }
+
+    private static List<ExecutableElement> constructors(TypeElement type) {
+        return ElementFilter.constructorsIn(type.getEnclosedElements());
+    }
+
+    private static boolean hasInstanceFields(TypeElement type) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+                            .anyMatch(field -> field.getModifiers().contains(Modifier.FINAL) && !field.getModifiers().contains(Modifier.STATIC));
+    }
+
+    private static String parameters(ExecutableElement executable) {
+        List<String> parameters = new ArrayList<>();
+        List<? extends VariableElement> elements = executable.getParameters();
+        for (int i = 0; i < elements.size(); i++) {
+            String type = elements.get(i).asType().toString();
+            if (executable.isVarArgs() && i == elements.size() - 1) {
+                type = type.substring(0, type.length() - 2) + "...";
+            }
+            // @Qualifier처럼 주입할 빈을 고르는 애너테이션을 그대로 붙인다
+            String annotations = elements.get(i).getAnnotationMirrors().stream()
+                                         .map(mirror -> mirror + " ")
+                                         .collect(Collectors.joining());
+            parameters.add(annotations + "final " + type + " " + elements.get(i).getSimpleName());
+        }
+        return String.join(", ", parameters);
+    }
+
+    private static String arguments(ExecutableElement executable) {
+        return executable.getParameters().stream()
+                         .map(parameter -> parameter.getSimpleName().toString())
+                         .collect(Collectors.joining(", "));
+    }
+
+    private static String throwsClause(ExecutableElement executable) {
+        if (executable.getThrownTypes().isEmpty()) {
+            return "";
+        }
+        return " throws " + executable.getThrownTypes().stream().map(TypeMirror::toString).collect(Collectors.joining(", "));
+    }
+
+    private static String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static boolean isRuntimeRetained(AnnotationMirror mirror) {
+        Retention retention = mirror.getAnnotationType().asElement().getAnnotation(Retention.class);
+        return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+    }
+}
@@ -0,0 +1,121 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import learn.resilience4j.Application;
+import learn.resilience4j.exception.BusinessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.HttpServerErrorException;
+
+// @CircuitBreaker, @Retry AOP 프록시를 거치는 경로
+// 다른 애스펙트가 섞이지 않도록 두 애노테이션만 붙은 AnnotationOnlyService를 호출하고, 같은 메서드에 걸리는 지연 기록 애스펙트는 끈다
+// 재시도가 발생하는 실패 경로는 wait-duration(500ms)이 지배하므로 측정하지 않는다
+@State(Scope.Benchmark)
+public class AnnotationCircuitBreakerBenchmark {
+
+    private static final String SERVER_A = "serverA";
+
+    private static final String SERVER_C = "serverC";
+
+    private ConfigurableApplicationContext context;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private AnnotationOnlyService service;
+
+    @Setup
+    public void setUp() {
+        // 커맨드라인 인자로 넘겨야 application.yml의 설정보다 우선한다
+        context = new SpringApplicationBuilder(Application.class).web(WebApplicationType.NONE)
+                                                                 .run("--logging.level.root=warn",
+                                                                      "--latency-histogram.enabled=false",
+                                                                      "--logging.level.io.github.resilience4j.circuitbreaker.internal.CircuitBreakerStateMachine=warn");
+
+        circuitBreakerRegistry = context.getBean(CircuitBreakerRegistry.class);
+        service = context.getBean(AnnotationOnlyService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String serverASuccess() {
+        return service.serverASuccess();
+    }
+
+    @Benchmark
+    public Object serverARecordedFailure(MetricsOnly metricsOnly) {
+        try {
+            return service.serverAFailure();
+        } catch (HttpServerErrorException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object serverAIgnoredBusinessException() {
+        try {
+            return service.serverABusinessFailure();
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object serverAOpenRejection(ForcedOpen forcedOpen) {
+        try {
+            return service.serverASuccess();
+        } catch (CallNotPermittedException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String serverBSuccess() {
+        return service.serverBSuccess();
+    }
+
+    @Benchmark
+    public String serverCSuccess() {
+        return service.serverCSuccess();
+    }
+
+    @Benchmark
+    public Object serverCOpenRejection(ForcedOpen forcedOpen) {
+        try {
+            return service.serverCSuccess();
+        } catch (CallNotPermittedException e) {
+            return e;
+        }
+    }
+
+    // 실패를 기록하지만 OPEN으로 전환되지 않는 상태
+    @State(Scope.Benchmark)
+    public static class MetricsOnly {
+
+        @Setup
+        public void setUp(AnnotationCircuitBreakerBenchmark benchmark) {
+            benchmark.circuitBreakerRegistry.circuitBreaker(SERVER_A).transitionToMetricsOnlyState();
+        }
+    }
+
+    // OPEN은 wait-duration-in-open-state가 지나면 HALF_OPEN으로 바뀌므로 FORCED_OPEN을 사용한다
+    @State(Scope.Benchmark)
+    public static class ForcedOpen {
+
+        @Setup
+        public void setUp(AnnotationCircuitBreakerBenchmark benchmark) {
+            benchmark.circuitBreakerRegistry.circuitBreaker(SERVER_A).transitionToForcedOpenState();
+            benchmark.circuitBreakerRegistry.circuitBreaker(SERVER_C).transitionToForcedOpenState();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import learn.resilience4j.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 서비스 빈에는 응답 캐시, 합치기, 동시 호출 한도 같은 애스펙트가 함께 붙어 있으므로
+// AnnotationCircuitBreakerBenchmark가 @CircuitBreaker, @Retry만 거치는 경로를 재도록 같은 인스턴스를 공유하는 빈을 둔다
+@Service
+public class AnnotationOnlyService {
+
+    private static final String SERVER_A = "serverA";
+
+    private static final String SERVER_B = "serverB";
+
+    private static final String SERVER_C = "serverC";
+
+    @CircuitBreaker(name = SERVER_A)
+    public String serverASuccess() {
+        return "Success";
+    }
+
+    @CircuitBreaker(name = SERVER_A)
+    public String serverAFailure() {
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+
+    // ServerAService에는 BusinessException을 던지는 메서드가 없다
+    @CircuitBreaker(name = SERVER_A)
+    public String serverABusinessFailure() {
+        throw new BusinessException();
+    }
+
+    @Retry(name = SERVER_B)
+    public String serverBSuccess() {
+        return "Success";
+    }
+
+    @CircuitBreaker(name = SERVER_C)
+    @Retry(name = SERVER_C)
+    public String serverCSuccess() {
+        return "Success";
+    }
+}
@@ -0,0 +1,74 @@
+package learn.resilience4j.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Collections;
+import learn.resilience4j.Application;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// batchSize개의 serverA 성공 호출을 단건 GET /serverA/success로 하나씩 보낼 때와 POST /serverA/batch 한 번으로 보낼 때
+// 두 벤치마크 모두 한 번 실행에 batchSize개 항목을 처리하므로 항목당 비용은 점수를 batchSize로 나눈 값이다
+// HTTP 왕복까지 포함하도록 실제 포트로 띄운다
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private HttpRequest single;
+
+    private HttpRequest batch;
+
+    @Setup
+    public void setUp() {
+        // 서킷 브레이커 경로를 측정하도록 응답 캐시는 끈다
+        context = new SpringApplicationBuilder(Application.class).run("--server.port=0",
+                                                                      "--logging.level.root=warn",
+                                                                      "--response-cache.instances.serverA.enabled=false",
+                                                                      "--logging.level.io.github.resilience4j.circuitbreaker.internal.CircuitBreakerStateMachine=warn");
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newHttpClient();
+        single = HttpRequest.newBuilder(URI.create(baseUrl + "/serverA/success")).build();
+        batch = HttpRequest.newBuilder(URI.create(baseUrl + "/serverA/batch"))
+                           .header("Content-Type", "application/json")
+                           .POST(BodyPublishers.ofString("[\"" + String.join("\",\"", Collections.nCopies(batchSize, "success")) + "\"]"))
+                           .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int individual() throws Exception {
+        int ok = 0;
+        for (int i = 0; i < batchSize; i++) {
+            if (client.send(single, BodyHandlers.discarding()).statusCode() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    @Benchmark
+    public int batch() throws Exception {
+        return client.send(batch, BodyHandlers.ofString()).body().length();
+    }
+}
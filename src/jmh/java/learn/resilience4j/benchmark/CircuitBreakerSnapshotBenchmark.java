@@ -0,0 +1,87 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.snapshot.CircuitBreakerSnapshotProperties;
+import learn.resilience4j.snapshot.CircuitBreakerSnapshotter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// circuitbreaker-snapshot.interval(1s)마다 실행하는 스냅샷과 시작할 때 한 번 실행하는 복원에 걸리는 시간
+// 서킷 브레이커마다 윈도우에 호출 결과 10개가 있다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CircuitBreakerSnapshotBenchmark {
+
+    @Param({"10000"})
+    public int circuitBreakers;
+
+    private CircuitBreakerSnapshotProperties properties;
+
+    private CircuitBreakerSnapshotter snapshotter;
+
+    private CircuitBreakerSnapshotter restarted;
+
+    @Setup
+    public void setUp() throws IOException {
+        properties = new CircuitBreakerSnapshotProperties();
+        properties.setPath(Files.createTempDirectory("circuitbreaker-snapshot").resolve("circuitbreakers.snapshot"));
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        for (int i = 0; i < circuitBreakers; i++) {
+            CircuitBreaker circuitBreaker = registry.circuitBreaker("serverA:host-" + i);
+            for (int call = 0; call < 10; call++) {
+                if (call % 5 == 0) {
+                    circuitBreaker.onError(0, TimeUnit.NANOSECONDS, new RuntimeException());
+                } else {
+                    circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        snapshotter = new CircuitBreakerSnapshotter(properties, registry, Clock.systemUTC());
+        snapshotter.snapshot();
+    }
+
+    // 복원할 때마다 빈 서킷 브레이커가 필요하다
+    @Setup(Level.Invocation)
+    public void setUpRestart() {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        for (int i = 0; i < circuitBreakers; i++) {
+            registry.circuitBreaker("serverA:host-" + i);
+        }
+        restarted = new CircuitBreakerSnapshotter(properties, registry, Clock.systemUTC());
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownRestart() throws IOException, InterruptedException {
+        restarted.destroy();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        snapshotter.destroy();
+    }
+
+    @Benchmark
+    public void snapshot() throws IOException {
+        snapshotter.snapshot();
+    }
+
+    @Benchmark
+    public int restore() {
+        return restarted.restore();
+    }
+}
@@ -0,0 +1,51 @@
+package learn.resilience4j.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import learn.resilience4j.limiter.ClientRateLimiter;
+import learn.resilience4j.limiter.ClientRateLimiterProperties;
+import learn.resilience4j.limiter.ClientRateLimiterProperties.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 요청 하나마다 ClientRateLimitFilter가 하는 일(경로 규칙 찾기, 클라이언트 버킷 찾기, 토큰 가져오기)의 비용
+// keys개의 클라이언트 키를 고르게 사용한다. 버킷이 충분히 커서 대부분 허용한다
+// -PjmhThreads로 요청 스레드 수를 늘려 비교한다
+@State(Scope.Benchmark)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    public int keys;
+
+    private ClientRateLimiter rateLimiter;
+
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        ClientRateLimiterProperties properties = new ClientRateLimiterProperties();
+        properties.setMaxKeys(keys);
+        for (String server : new String[]{"serverA", "serverB", "serverC"}) {
+            Rule rule = new Rule();
+            rule.setPath("/" + server + "/**");
+            rule.setCapacity(1_000_000);
+            rule.setRefillPerSecond(1_000_000);
+            properties.getRules().put(server, rule);
+        }
+        rateLimiter = new ClientRateLimiter(properties, new SimpleMeterRegistry());
+
+        clientKeys = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            clientKeys[i] = "client-" + i;
+            rateLimiter.tryAcquire("/serverC/success", clientKeys[i]);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return rateLimiter.tryAcquire("/serverC/success", clientKeys[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+}
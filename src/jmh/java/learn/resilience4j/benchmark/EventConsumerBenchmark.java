@@ -0,0 +1,52 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import learn.resilience4j.event.AsyncEventSink;
+import learn.resilience4j.event.AsyncEventSinkProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// 서킷 브레이커 호출 하나에 붙는 이벤트 소비 비용
+// - log: 이전 Resilience4jConfig처럼 요청 스레드에서 이벤트마다 log.info
+// - sink: AsyncEventSink로 넘긴다
+// -PjmhThreads로 요청 스레드 수를 늘려 비교한다. log는 logback 기본 설정(콘솔)으로 출력된다
+@State(Scope.Benchmark)
+@Slf4j
+public class EventConsumerBenchmark {
+
+    @Param({"log", "sink"})
+    public String consumer;
+
+    private CircuitBreaker circuitBreaker;
+
+    private AsyncEventSink eventSink;
+
+    @Setup
+    public void setUp() {
+        circuitBreaker = CircuitBreaker.ofDefaults("serverA");
+
+        if (consumer.equals("log")) {
+            circuitBreaker.getEventPublisher().onEvent(event -> log.info("{}", event));
+        } else {
+            eventSink = new AsyncEventSink(new AsyncEventSinkProperties());
+            circuitBreaker.getEventPublisher().onEvent(eventSink.circuitBreakerEventConsumer(circuitBreaker.getName()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (eventSink != null) {
+            eventSink.destroy();
+        }
+    }
+
+    @Benchmark
+    public String success() {
+        return circuitBreaker.executeSupplier(ProgrammaticCircuitBreakerBenchmark.Downstream::success);
+    }
+}
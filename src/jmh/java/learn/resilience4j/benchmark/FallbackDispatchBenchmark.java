@@ -0,0 +1,75 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.spring6.fallback.FallbackMethod;
+import java.lang.reflect.Method;
+import learn.resilience4j.fallback.FallbackDispatchTable;
+import learn.resilience4j.fallback.FallbackDispatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 모든 호출이 실패해 fallback으로 가는 상황(failure storm)에서 fallback 하나를 고르고 호출하는 비용
+// - reflection: resilience4j FallbackExecutor처럼 호출마다 FallbackMethod.create로 후보를 찾고 Method.invoke
+// - methodHandle: FallbackDispatchTable이 만들어 둔 디스패치 테이블
+// exception은 서버 오류(HttpServerErrorException)와 서킷이 열린 뒤의 거절(CallNotPermittedException -> fallback(Exception))
+@State(Scope.Benchmark)
+public class FallbackDispatchBenchmark {
+
+    @Param({"serverError", "notPermitted"})
+    public String exception;
+
+    private final Service service = new Service();
+
+    private final Object[] args = new Object[0];
+
+    private Method method;
+
+    private FallbackDispatcher dispatcher;
+
+    private Throwable throwable;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = Service.class.getMethod("failureWithFallback");
+
+        FallbackDispatchTable dispatchTable = new FallbackDispatchTable();
+        dispatchTable.postProcessBeforeInitialization(service, "service");
+        dispatcher = dispatchTable.dispatcher(method, "fallback");
+
+        throwable = exception.equals("serverError") ? new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)
+                                                    : CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("serverA"));
+    }
+
+    @Benchmark
+    public Object reflection() throws Throwable {
+        return FallbackMethod.create("fallback", method, args, service, service).fallback(throwable);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return dispatcher.dispatch(service, args, throwable);
+    }
+
+    // ServerAService와 같은 fallback 구성
+    public static class Service {
+
+        @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "serverA", fallbackMethod = "fallback")
+        public String failureWithFallback() {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        private String fallback(HttpServerErrorException e) {
+            return "Recovered from HttpServerErrorException: " + e.getMessage();
+        }
+
+        private String fallback(Exception e) {
+            return "Recovered: " + e.getMessage();
+        }
+    }
+}
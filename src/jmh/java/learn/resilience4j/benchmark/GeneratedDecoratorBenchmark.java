@@ -0,0 +1,85 @@
+package learn.resilience4j.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.Application;
+import learn.resilience4j.service.ServerAService;
+import learn.resilience4j.service.ServerBService;
+import learn.resilience4j.service.ServerCService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// @CircuitBreaker, @Retry를 AOP 프록시로 호출하는 경로(proxy)와 생성한 Decorator로 호출하는 경로(generated)
+// - serverXSuccess: 호출 하나의 비용. serverB는 모든 메서드가 Decorator로 바뀌어 프록시가 없다
+// - startup: 애플리케이션 컨텍스트를 띄우고 닫는 시간
+@State(Scope.Benchmark)
+public class GeneratedDecoratorBenchmark {
+
+    @Param({"proxy", "generated"})
+    public String path;
+
+    private ConfigurableApplicationContext context;
+
+    private ServerAService serverAService;
+
+    private ServerBService serverBService;
+
+    private ServerCService serverCService;
+
+    @Setup
+    public void setUp() {
+        context = start(path);
+        serverAService = context.getBean(ServerAService.class);
+        serverBService = context.getBean(ServerBService.class);
+        serverCService = context.getBean(ServerCService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String serverASuccess() {
+        return serverAService.success();
+    }
+
+    @Benchmark
+    public String serverBSuccess() {
+        return serverBService.success();
+    }
+
+    @Benchmark
+    public String serverCSuccess() {
+        return serverCService.success();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public void startup() {
+        start(path).close();
+    }
+
+    // 커맨드라인 인자로 넘겨야 application.yml의 설정보다 우선한다
+    // 서킷 브레이커 경로를 측정하도록 응답 캐시는 끈다 (AnnotationCircuitBreakerBenchmark와 같다)
+    private static ConfigurableApplicationContext start(String path) {
+        return new SpringApplicationBuilder(Application.class).web(WebApplicationType.NONE)
+                                                              .run("--logging.level.root=warn",
+                                                                   "--response-cache.instances.serverA.enabled=false",
+                                                                   "--generated-decorators.enabled=" + path.equals("generated"));
+    }
+}
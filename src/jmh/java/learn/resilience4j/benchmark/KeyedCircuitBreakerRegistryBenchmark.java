@@ -0,0 +1,80 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import learn.resilience4j.circuitbreaker.KeyedCircuitBreakerProperties;
+import learn.resilience4j.circuitbreaker.KeyedCircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 키 개수별 서킷 브레이커 하나당 힙 사용량(Setup에서 로그로 남긴다)과 동시 조회 비용
+// ./gradlew jmh -PjmhIncludes=KeyedCircuitBreakerRegistryBenchmark -PjmhThreads=-1
+@Slf4j
+@State(Scope.Benchmark)
+public class KeyedCircuitBreakerRegistryBenchmark {
+
+    @Param({"10000", "100000"})
+    int keys;
+
+    private KeyedCircuitBreakerRegistry registry;
+
+    private String[] hosts;
+
+    @Setup
+    public void setUp() {
+        hosts = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            hosts[i] = "host-" + i;
+        }
+
+        KeyedCircuitBreakerProperties properties = new KeyedCircuitBreakerProperties();
+        properties.setMaxSize(keys);
+        properties.setExpireAfterAccess(Duration.ofHours(1));
+
+        long before = usedHeap();
+
+        registry = new KeyedCircuitBreakerRegistry(CircuitBreakerRegistry.ofDefaults(), properties, new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
+            }
+        });
+        for (String host : hosts) {
+            registry.circuitBreaker("serverA", host);
+        }
+
+        // 보조 결과(@AuxCounters)는 반복마다 더해지므로 한 번만 잰 값은 로그로 남긴다
+        long after = usedHeap();
+        log.info("keys={}, heap={}KB, per circuit breaker={}B", keys, (after - before) / 1024, (after - before) / keys);
+    }
+
+    @Benchmark
+    public CircuitBreaker lookup() {
+        return registry.circuitBreaker("serverA", hosts[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,59 @@
+package learn.resilience4j.benchmark;
+
+import learn.resilience4j.Application;
+import learn.resilience4j.service.ServerAService;
+import learn.resilience4j.service.ServerBService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// AOP 프록시를 거치는 경로에서 지연 기록 애스펙트(CallLatencyAspect, AttemptLatencyAspect)의 비용
+// latencyHistogram=false와의 차이가 두 애스펙트의 비용이다. gc 프로파일러의 gc.alloc.rate.norm 차이가 호출마다 늘어난 할당이다
+// ./gradlew jmh -PjmhIncludes=LatencyAspectBenchmark
+@State(Scope.Benchmark)
+public class LatencyAspectBenchmark {
+
+    @Param({"true", "false"})
+    private boolean latencyHistogram;
+
+    private ConfigurableApplicationContext context;
+
+    private ServerAService serverAService;
+
+    private ServerBService serverBService;
+
+    @Setup
+    public void setUp() {
+        // 애스펙트 경로를 측정하도록 응답 캐시는 끈다
+        context = new SpringApplicationBuilder(Application.class).web(WebApplicationType.NONE)
+                                                                 .run("--logging.level.root=warn",
+                                                                      "--response-cache.instances.serverA.enabled=false",
+                                                                      "--latency-histogram.enabled=" + latencyHistogram);
+
+        serverAService = context.getBean(ServerAService.class);
+        serverBService = context.getBean(ServerBService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // @CircuitBreaker
+    @Benchmark
+    public String serverASuccess() {
+        return serverAService.success();
+    }
+
+    // @Retry
+    @Benchmark
+    public String serverBSuccess() {
+        return serverBService.success();
+    }
+}
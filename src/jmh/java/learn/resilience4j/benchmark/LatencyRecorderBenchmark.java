@@ -0,0 +1,32 @@
+package learn.resilience4j.benchmark;
+
+import learn.resilience4j.latency.LatencyHistogramProperties;
+import learn.resilience4j.latency.LatencyRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 요청 경로의 지연 기록 비용
+// gc 프로파일러의 gc.alloc.rate.norm이 0에 가까워야 한다
+// ./gradlew jmh -PjmhIncludes=LatencyRecorderBenchmark -PjmhThreads=4
+@State(Scope.Benchmark)
+public class LatencyRecorderBenchmark {
+
+    private LatencyRecorder recorder;
+
+    @Setup
+    public void setUp() {
+        recorder = new LatencyRecorder("serverA", new LatencyHistogramProperties());
+    }
+
+    @Benchmark
+    public void recordAttempt() {
+        recorder.recordAttempt(System.nanoTime() & 0xFFFFFFFL);
+    }
+
+    @Benchmark
+    public void recordCall() {
+        recorder.recordCall(System.nanoTime() & 0xFFFFFFFL);
+    }
+}
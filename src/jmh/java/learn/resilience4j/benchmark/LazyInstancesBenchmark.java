@@ -0,0 +1,61 @@
+package learn.resilience4j.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.Application;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// resilience4j.circuitbreaker.instances, resilience4j.retry.instances에 인스턴스를 instances개 설정하고 애플리케이션 컨텍스트를 띄우는 시간과
+// 띄운 뒤 GC를 하고 남은 힙(retainedHeapKilobytes). lazy=true이면 인스턴스를 처음 사용할 때 만든다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class LazyInstancesBenchmark {
+
+    @Param({"1000"})
+    public int instances;
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+
+        public long retainedHeapKilobytes;
+    }
+
+    @Benchmark
+    public void startup(Heap heap) {
+        try (ConfigurableApplicationContext context = start()) {
+            System.gc();
+            heap.retainedHeapKilobytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024;
+        }
+    }
+
+    // 커맨드라인 인자로 넘겨야 application.yml의 설정보다 우선한다
+    private ConfigurableApplicationContext start() {
+        List<String> args = new ArrayList<>(List.of("--logging.level.root=warn", "--lazy-instances.enabled=" + lazy));
+        for (int i = 0; i < instances; i++) {
+            args.add("--resilience4j.circuitbreaker.instances.dependency" + i + ".base-config=default");
+            args.add("--resilience4j.retry.instances.dependency" + i + ".base-config=default");
+        }
+        return new SpringApplicationBuilder(Application.class).web(WebApplicationType.NONE).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,135 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import learn.resilience4j.exception.BusinessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+// CircuitBreakerTest, CircuitBreakerWithRetryTest처럼 decorateSupplier(...)로 직접 감싸는 경로
+// application.yml의 default 설정과 같은 설정을 사용한다
+@State(Scope.Benchmark)
+public class ProgrammaticCircuitBreakerBenchmark {
+
+    private Supplier<String> success;
+
+    private Supplier<String> failure;
+
+    private Supplier<String> ignored;
+
+    private Supplier<String> rejected;
+
+    private Supplier<String> retrySuccess;
+
+    private Supplier<String> circuitBreakerWithRetrySuccess;
+
+    @Setup
+    public void setUp() {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                                                                        .failureRateThreshold(50)
+                                                                        .minimumNumberOfCalls(5)
+                                                                        .permittedNumberOfCallsInHalfOpenState(3)
+                                                                        .recordExceptions(HttpServerErrorException.class, TimeoutException.class, IOException.class)
+                                                                        .ignoreExceptions(BusinessException.class)
+                                                                        .build();
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+
+        CircuitBreaker closed = circuitBreakerRegistry.circuitBreaker("closed");
+
+        // METRICS_ONLY는 실패를 윈도우에 기록하지만 OPEN으로 전환되지 않으므로 실패 기록 비용만 측정할 수 있다
+        CircuitBreaker metricsOnly = circuitBreakerRegistry.circuitBreaker("metricsOnly");
+        metricsOnly.transitionToMetricsOnlyState();
+
+        // OPEN은 wait-duration-in-open-state가 지나면 HALF_OPEN으로 바뀌므로 FORCED_OPEN을 사용한다
+        CircuitBreaker forcedOpen = circuitBreakerRegistry.circuitBreaker("forcedOpen");
+        forcedOpen.transitionToForcedOpenState();
+
+        RetryConfig retryConfig = RetryConfig.custom()
+                                             .maxAttempts(3)
+                                             .waitDuration(Duration.ofMillis(500))
+                                             .retryExceptions(HttpServerErrorException.class, TimeoutException.class, IOException.class)
+                                             .ignoreExceptions(BusinessException.class)
+                                             .build();
+
+        Retry retry = RetryRegistry.of(retryConfig).retry("retry");
+
+        success = closed.decorateSupplier(Downstream::success);
+        failure = metricsOnly.decorateSupplier(Downstream::failure);
+        ignored = closed.decorateSupplier(Downstream::businessFailure);
+        rejected = forcedOpen.decorateSupplier(Downstream::success);
+        retrySuccess = Retry.decorateSupplier(retry, Downstream::success);
+        circuitBreakerWithRetrySuccess = Retry.decorateSupplier(retry, closed.decorateSupplier(Downstream::success));
+    }
+
+    @Benchmark
+    public String success() {
+        return success.get();
+    }
+
+    @Benchmark
+    public Object recordedFailure() {
+        try {
+            return failure.get();
+        } catch (HttpServerErrorException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object ignoredBusinessException() {
+        try {
+            return ignored.get();
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object openRejection() {
+        try {
+            return rejected.get();
+        } catch (CallNotPermittedException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String retrySuccess() {
+        return retrySuccess.get();
+    }
+
+    @Benchmark
+    public String circuitBreakerWithRetrySuccess() {
+        return circuitBreakerWithRetrySuccess.get();
+    }
+
+    // ServerXService의 메서드 본문과 같은 동작
+    static class Downstream {
+
+        static String success() {
+            return "Success";
+        }
+
+        static String failure() {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+        }
+
+        static String businessFailure() {
+            throw new BusinessException();
+        }
+    }
+}
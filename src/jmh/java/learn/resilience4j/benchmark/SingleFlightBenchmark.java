@@ -0,0 +1,82 @@
+package learn.resilience4j.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import learn.resilience4j.coalescing.SingleFlight;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 키 분포(Zipf 지수)별로 원격 서비스 호출이 얼마나 줄어드는지. downstreamCalls / requests를 비교한다
+// ./gradlew jmh -PjmhIncludes=SingleFlightBenchmark -PjmhThreads=64
+@State(Scope.Benchmark)
+public class SingleFlightBenchmark {
+
+    private static final int KEYS = 1_000;
+
+    private static final long DOWNSTREAM_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // 0이면 균등 분포, 클수록 소수의 키에 몰린다
+    @Param({"0", "1.0", "1.5"})
+    double zipfExponent;
+
+    @Param({"false", "true"})
+    boolean coalesce;
+
+    private SingleFlight singleFlight;
+
+    private double[] cumulativeProbabilities;
+
+    @Setup
+    public void setUp() {
+        singleFlight = new SingleFlight("benchmark", Duration.ofSeconds(2), new SimpleMeterRegistry());
+
+        cumulativeProbabilities = new double[KEYS];
+        double sum = 0;
+        for (int rank = 1; rank <= KEYS; rank++) {
+            sum += 1 / Math.pow(rank, zipfExponent);
+            cumulativeProbabilities[rank - 1] = sum;
+        }
+        for (int i = 0; i < KEYS; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+    }
+
+    @Benchmark
+    public Object call(Counters counters) throws Throwable {
+        counters.requests++;
+
+        Integer key = nextKey();
+        if (!coalesce) {
+            return downstream(key, counters);
+        }
+        return singleFlight.execute(key, () -> downstream(key, counters));
+    }
+
+    private Integer nextKey() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, ThreadLocalRandom.current().nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, KEYS - 1);
+    }
+
+    private static Object downstream(Integer key, Counters counters) {
+        counters.downstreamCalls++;
+        LockSupport.parkNanos(DOWNSTREAM_LATENCY_NANOS);
+        return key;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long requests;
+
+        public long downstreamCalls;
+    }
+}
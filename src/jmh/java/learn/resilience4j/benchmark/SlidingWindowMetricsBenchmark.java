@@ -0,0 +1,37 @@
+package learn.resilience4j.benchmark;
+
+import io.github.resilience4j.core.metrics.FixedSizeSlidingWindowMetrics;
+import io.github.resilience4j.core.metrics.Metrics;
+import io.github.resilience4j.core.metrics.Metrics.Outcome;
+import io.github.resilience4j.core.metrics.Snapshot;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.prototype.LockFreeSlidingWindowMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 하나의 윈도우에 여러 스레드가 동시에 기록할 때의 경합
+// for t in 1 2 4 8 16 32 64; do ./gradlew jmh -PjmhIncludes=SlidingWindowMetricsBenchmark -PjmhThreads=$t; done
+@State(Scope.Benchmark)
+public class SlidingWindowMetricsBenchmark {
+
+    @Param({"synchronized", "lockFree"})
+    String window;
+
+    private Metrics metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = window.equals("lockFree") ? new LockFreeSlidingWindowMetrics(100) : new FixedSizeSlidingWindowMetrics(100);
+    }
+
+    // 10%는 실패
+    @Benchmark
+    public Snapshot record() {
+        Outcome outcome = ThreadLocalRandom.current().nextInt(10) == 0 ? Outcome.ERROR : Outcome.SUCCESS;
+        return metrics.record(1, TimeUnit.MILLISECONDS, outcome);
+    }
+}
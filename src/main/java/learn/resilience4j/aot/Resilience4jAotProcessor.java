@@ -0,0 +1,117 @@
+package learn.resilience4j.aot;
+
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+// native image에서 리플렉션으로 접근하는 클래스를 빌드할 때(processAot) 등록한다
+// - resilience4j 애너테이션이 붙은 빈 클래스: 애스펙트와 FallbackDispatchTable이 메서드와 애너테이션을 읽고 private fallback 메서드를 호출한다.
+//   processor 모듈이 만든 <클래스>Decorator도 등록한다
+// - resilience4j.circuitbreaker, resilience4j.retry의 configs, instances에 적은 예외 클래스와 predicate 클래스: 이름으로 클래스를 읽는다
+// @ConditionalOnProperty와 generated-decorators.enabled는 빌드할 때의 값으로 정해진다
+public class Resilience4jAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    private static final List<Class<? extends Annotation>> ANNOTATION_TYPES = List.of(CircuitBreaker.class, Retry.class, Bulkhead.class,
+                                                                                      RateLimiter.class, TimeLimiter.class);
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Set<Class<?>> annotatedTypes = new LinkedHashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null) {
+                Class<?> userType = ClassUtils.getUserClass(type);
+                if (hasResilienceAnnotation(userType)) {
+                    annotatedTypes.add(userType);
+                }
+            }
+        }
+
+        Binder binder = Binder.get(beanFactory.getBean(ConfigurableEnvironment.class));
+        Set<String> classNames = new LinkedHashSet<>();
+        Set<String> predicateClassNames = new LinkedHashSet<>();
+        for (String prefix : List.of("resilience4j.circuitbreaker", "resilience4j.retry")) {
+            for (String section : List.of("configs", "instances")) {
+                binder.bind(prefix + "." + section, Bindable.mapOf(String.class, InstanceClasses.class))
+                      .ifBound(instances -> instances.values().forEach(instance -> {
+                          classNames.addAll(instance.exceptionClasses());
+                          predicateClassNames.addAll(instance.predicateClasses());
+                      }));
+            }
+        }
+
+        return (generationContext, beanFactoryInitializationCode) -> {
+            ReflectionHints reflection = generationContext.getRuntimeHints().reflection();
+            for (Class<?> type : annotatedTypes) {
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    reflection.registerType(current, MemberCategory.INTROSPECT_DECLARED_METHODS, MemberCategory.INVOKE_DECLARED_METHODS);
+                }
+            }
+            classNames.forEach(className -> reflection.registerType(TypeReference.of(className)));
+            predicateClassNames.forEach(className -> reflection.registerType(TypeReference.of(className), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+        };
+    }
+
+    private static boolean hasResilienceAnnotation(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : ReflectionUtils.getDeclaredMethods(current)) {
+                if (ANNOTATION_TYPES.stream().anyMatch(method::isAnnotationPresent)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // 클래스 이름만 필요하므로 문자열로 읽는다
+    @Getter
+    @Setter
+    public static class InstanceClasses {
+
+        private List<String> recordExceptions = new ArrayList<>();
+
+        private List<String> ignoreExceptions = new ArrayList<>();
+
+        private List<String> retryExceptions = new ArrayList<>();
+
+        private String recordFailurePredicate;
+
+        private String ignoreExceptionPredicate;
+
+        private String retryExceptionPredicate;
+
+        private String resultPredicate;
+
+        List<String> exceptionClasses() {
+            return Stream.of(recordExceptions, ignoreExceptions, retryExceptions).flatMap(List::stream).toList();
+        }
+
+        List<String> predicateClasses() {
+            return Stream.of(recordFailurePredicate, ignoreExceptionPredicate, retryExceptionPredicate, resultPredicate)
+                         .filter(className -> className != null && !className.isEmpty())
+                         .toList();
+        }
+    }
+}
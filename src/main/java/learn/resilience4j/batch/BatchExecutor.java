@@ -0,0 +1,161 @@
+package learn.resilience4j.batch;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+// 배치의 항목들을 하나의 서킷 브레이커 아래에서 병렬로 호출한다
+// 허가는 배치 단위로 한 번에 받고, 결과는 모든 항목이 끝난 뒤 요청 스레드에서 한 번에 기록한다
+// 호출 스레드는 모든 배치가 공유하는 고정 크기 풀이다. 큐가 넘치면 요청 스레드가 직접 실행하므로 동시 원격 호출 수는 parallelism + 요청 스레드 수를 넘지 않는다
+// 배치마다 batch.timeout 안에 끝나지 않은 항목은 취소하고, TimeLimiter처럼 TimeoutException으로 기록한다. 다른 배치가 풀을 오래 기다리지 않는다
+@Component
+public class BatchExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    public BatchExecutor(BatchProperties properties) {
+        this.timeout = properties.getTimeout();
+        this.executor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(), 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                                               new CustomizableThreadFactory("batch-"), new CallerRunsPolicy());
+    }
+
+    // fallback이 null이면 실패한 항목은 500으로 남는다
+    public record Item(Callable<String> callable, Function<Exception, String> fallback) {
+
+    }
+
+    private record Attempt(String result, Throwable error, long durationInNanos) {
+
+    }
+
+    public List<BatchItemResult> execute(CircuitBreaker circuitBreaker, List<Item> items) {
+        int permitted = acquirePermissions(circuitBreaker, items.size());
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<Attempt>> futures = new ArrayList<>(permitted);
+        for (int i = 0; i < permitted; i++) {
+            // 큐가 넘쳐 요청 스레드가 직접 실행하는 동안 시간이 다 지났으면 나머지 항목은 실행하지 않는다
+            futures.add(System.nanoTime() - deadline < 0 ? executor.submit(timed(items.get(i).callable()))
+                                                         : CompletableFuture.completedFuture(timedOut()));
+        }
+
+        List<Attempt> attempts = new ArrayList<>(permitted);
+        try {
+            for (Future<Attempt> future : futures) {
+                attempts.add(await(future, deadline));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            for (int i = 0; i < permitted; i++) {
+                circuitBreaker.releasePermission();
+            }
+            throw new CancellationException("Batch interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause()); // timed()가 모든 예외를 Attempt로 바꾸므로 일어나지 않는다
+        }
+
+        // 호출이 끝난 순서가 아니라 항목 순서대로 한 번에 기록한다
+        for (Attempt attempt : attempts) {
+            if (attempt.error() == null) {
+                circuitBreaker.onSuccess(attempt.durationInNanos(), TimeUnit.NANOSECONDS);
+            } else {
+                circuitBreaker.onError(attempt.durationInNanos(), TimeUnit.NANOSECONDS, attempt.error());
+            }
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < permitted; i++) {
+            Attempt attempt = attempts.get(i);
+            results.add(attempt.error() == null
+                        ? new BatchItemResult(i, HttpStatus.OK.value(), attempt.result(), false, false)
+                        : failed(i, items.get(i), attempt.error(), false));
+        }
+        if (permitted < items.size()) {
+            CallNotPermittedException notPermitted = CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+            for (int i = permitted; i < items.size(); i++) {
+                results.add(failed(i, items.get(i), notPermitted, true));
+            }
+        }
+        return results;
+    }
+
+    // CLOSED, DISABLED, METRICS_ONLY는 허가 수에 제한이 없으므로 한 번 허가받고 배치 전체를 허가한다
+    // HALF_OPEN은 permitted-number-of-calls-in-half-open-state만큼만 허가하므로 하나씩 받고, 거절되면 나머지 항목은 모두 차단한다
+    // OPEN, FORCED_OPEN은 첫 허가에서 거절된다
+    // 상태는 첫 허가를 받은 뒤에 읽는다. 먼저 읽으면 그 사이에 OPEN, HALF_OPEN으로 바뀌어도 배치 전체를 호출한다
+    static int acquirePermissions(CircuitBreaker circuitBreaker, int size) {
+        if (size == 0 || !circuitBreaker.tryAcquirePermission()) {
+            return 0;
+        }
+        boolean unlimited = switch (circuitBreaker.getState()) {
+            case CLOSED, DISABLED, METRICS_ONLY -> true;
+            default -> false;
+        };
+        if (unlimited) {
+            return size;
+        }
+        int permitted = 1;
+        while (permitted < size && circuitBreaker.tryAcquirePermission()) {
+            permitted++;
+        }
+        return permitted;
+    }
+
+    private Attempt await(Future<Attempt> future, long deadline) throws InterruptedException, ExecutionException {
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return timedOut();
+        }
+    }
+
+    private Attempt timedOut() {
+        return new Attempt(null, new TimeoutException("Batch did not complete within " + timeout), timeout.toNanos());
+    }
+
+    private static Callable<Attempt> timed(Callable<String> callable) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                String result = callable.call();
+                return new Attempt(result, null, System.nanoTime() - start);
+            } catch (Throwable e) {
+                return new Attempt(null, e, System.nanoTime() - start);
+            }
+        };
+    }
+
+    private static BatchItemResult failed(int index, Item item, Throwable error, boolean shortCircuited) {
+        if (item.fallback() != null && error instanceof Exception exception) {
+            return new BatchItemResult(index, HttpStatus.OK.value(), item.fallback().apply(exception), shortCircuited, true);
+        }
+        return new BatchItemResult(index, HttpStatus.INTERNAL_SERVER_ERROR.value(), error.getMessage(), shortCircuited, false);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,7 @@
+package learn.resilience4j.batch;
+
+// status는 같은 항목을 단건 엔드포인트로 호출했을 때의 HTTP 상태
+// shortCircuited: 서킷 브레이커가 허가하지 않아 호출하지 않았다. fallback: body는 대비책이 만든 값이다
+public record BatchItemResult(int index, int status, String body, boolean shortCircuited, boolean fallback) {
+
+}
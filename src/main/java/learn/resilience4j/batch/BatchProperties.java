@@ -0,0 +1,24 @@
+package learn.resilience4j.batch;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("batch")
+@Getter
+@Setter
+public class BatchProperties {
+
+    // 한 요청에 담을 수 있는 최대 항목 수
+    private int maxSize = 1_000;
+
+    // 모든 배치 요청이 공유하는 실행 스레드 수
+    private int parallelism = 16;
+
+    // 실행 스레드가 모두 바쁠 때 대기할 수 있는 항목 수. 넘치면 요청 스레드가 직접 실행한다
+    private int queueCapacity = 1_000;
+
+    // 배치 하나가 끝나야 하는 시간. 지나면 끝나지 않은 항목을 취소하고 TimeoutException으로 기록한다
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,100 @@
+package learn.resilience4j.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.event.BulkheadEvent;
+import io.github.resilience4j.bulkhead.event.ThreadPoolBulkheadEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+
+// bulkhead마다 다음 지표를 등록한다. 태그: name, type(semaphore, thread-pool)
+// - bulkhead.calls{result=permitted|rejected}: 거절률은 rejected / (permitted + rejected)
+// - bulkhead.active.calls: 실행 중인 호출 수. 스레드 풀은 대기열에 있는 호출을 뺀다
+// - bulkhead.queue.depth: 스레드 풀 대기열에 있는 호출 수. 세마포어 bulkhead는 max-wait-duration이 0이므로 등록하지 않는다
+@Component
+public class BulkheadMetrics {
+
+    public static final String SEMAPHORE = "semaphore";
+
+    public static final String THREAD_POOL = "thread-pool";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+
+    public BulkheadMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 같은 이름으로 바뀐 bulkhead는 이전 미터를 지우고 새로 등록한다
+    public void bind(Bulkhead bulkhead) {
+        remove(bulkhead.getName(), SEMAPHORE);
+        Tags tags = Tags.of("name", bulkhead.getName(), "type", SEMAPHORE);
+        Counter permitted = counter(tags, "permitted");
+        Counter rejected = counter(tags, "rejected");
+        bulkhead.getEventPublisher().onEvent(event -> {
+            if (event.getEventType() == BulkheadEvent.Type.CALL_PERMITTED) {
+                permitted.increment();
+            } else if (event.getEventType() == BulkheadEvent.Type.CALL_REJECTED) {
+                rejected.increment();
+            }
+        });
+
+        Bulkhead.Metrics metrics = bulkhead.getMetrics();
+        Gauge active = Gauge.builder("bulkhead.active.calls", metrics, m -> m.getMaxAllowedConcurrentCalls() - m.getAvailableConcurrentCalls())
+                            .tags(tags)
+                            .register(meterRegistry);
+        meters.put(key(bulkhead.getName(), SEMAPHORE), List.of(permitted, rejected, active));
+    }
+
+    public void bind(ThreadPoolBulkhead bulkhead) {
+        remove(bulkhead.getName(), THREAD_POOL);
+        Tags tags = Tags.of("name", bulkhead.getName(), "type", THREAD_POOL);
+        Counter permitted = counter(tags, "permitted");
+        Counter rejected = counter(tags, "rejected");
+        // 허용한 뒤 끝나지 않은 호출. 대기열에 있는 호출을 포함한다
+        AtomicInteger inFlight = new AtomicInteger();
+        bulkhead.getEventPublisher().onEvent(event -> {
+            if (event.getEventType() == ThreadPoolBulkheadEvent.Type.CALL_PERMITTED) {
+                permitted.increment();
+                inFlight.incrementAndGet();
+            } else if (event.getEventType() == ThreadPoolBulkheadEvent.Type.CALL_REJECTED) {
+                rejected.increment();
+            } else if (event.getEventType() == ThreadPoolBulkheadEvent.Type.CALL_FINISHED) {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        ThreadPoolBulkhead.Metrics metrics = bulkhead.getMetrics();
+        Gauge queueDepth = Gauge.builder("bulkhead.queue.depth", metrics, ThreadPoolBulkhead.Metrics::getQueueDepth)
+                                .tags(tags)
+                                .register(meterRegistry);
+        Gauge active = Gauge.builder("bulkhead.active.calls", metrics, m -> Math.max(0, inFlight.get() - m.getQueueDepth()))
+                            .tags(tags)
+                            .register(meterRegistry);
+        meters.put(key(bulkhead.getName(), THREAD_POOL), List.of(permitted, rejected, queueDepth, active));
+    }
+
+    public void remove(String name, String type) {
+        List<Meter> removed = meters.remove(key(name, type));
+        if (removed != null) {
+            removed.forEach(meterRegistry::remove);
+        }
+    }
+
+    private Counter counter(Tags tags, String result) {
+        return Counter.builder("bulkhead.calls").tags(tags).tag("result", result).register(meterRegistry);
+    }
+
+    private static String key(String name, String type) {
+        return type + ":" + name;
+    }
+}
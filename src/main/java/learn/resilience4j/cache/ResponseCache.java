@@ -0,0 +1,93 @@
+package learn.resilience4j.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Predicate;
+import learn.resilience4j.cache.ResponseCacheProperties.InstanceProperties;
+
+// ttl 안의 응답은 그대로 사용하고, ttl이 지났으면 호출해서 갱신한다
+// 서킷 브레이커가 실패로 기록하는 예외나 CallNotPermittedException으로 실패하면 max-staleness 안의 지난 응답을 대신 사용한다
+// 무시하는 예외(BusinessException)와 Error는 원격 서비스의 장애가 아니므로 그대로 던진다
+public class ResponseCache {
+
+    private final InstanceProperties properties;
+
+    private final Ticker ticker;
+
+    private final Predicate<Throwable> servesStaleOn;
+
+    private final Cache<Object, Entry> entries;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter staleServes;
+
+    public ResponseCache(String name, InstanceProperties properties, Predicate<Throwable> servesStaleOn, MeterRegistry meterRegistry, Ticker ticker) {
+        this.properties = properties;
+        this.ticker = ticker;
+        this.servesStaleOn = servesStaleOn;
+        this.entries = Caffeine.newBuilder()
+                               .maximumSize(properties.getMaxSize())
+                               .expireAfterWrite(properties.getMaxStaleness())
+                               .ticker(ticker)
+                               .build();
+        this.hits = counter(meterRegistry, name, "hit");
+        this.misses = counter(meterRegistry, name, "miss");
+        this.staleServes = counter(meterRegistry, name, "stale");
+    }
+
+    public Object get(Object key, boolean bypassFresh, Call call) throws Throwable {
+
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && !bypassFresh && ticker.read() - entry.createdAt() < properties.getTtl().toNanos()) {
+            hits.increment();
+            return entry.value();
+        }
+
+        misses.increment();
+        try {
+            Object value = call.call();
+            if (value != null) {
+                entries.put(key, new Entry(value, ticker.read()));
+            }
+            return value;
+        } catch (Throwable e) {
+            if (entry == null || !servesStaleOn.test(e)) {
+                throw e;
+            }
+            staleServes.increment();
+            return entry.value();
+        }
+    }
+
+    // 같은 이름의 서킷 브레이커 설정으로 지난 응답을 사용할 예외를 정한다
+    public static Predicate<Throwable> servesStaleOn(CircuitBreakerConfig config) {
+        return e -> e instanceof CallNotPermittedException
+                    || e instanceof Exception && !config.getIgnoreExceptionPredicate().test(e) && config.getRecordExceptionPredicate().test(e);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("response.cache.requests").tag("name", name).tag("result", result).register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface Call {
+
+        Object call() throws Throwable;
+    }
+
+    private record Entry(Object value, long createdAt) {
+
+    }
+}
@@ -0,0 +1,32 @@
+package learn.resilience4j.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("response-cache")
+@Getter
+@Setter
+public class ResponseCacheProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class InstanceProperties {
+
+        private boolean enabled = true;
+
+        // 이 시간 동안은 원격 서비스를 호출하지 않고 캐시된 응답을 사용한다
+        private Duration ttl = Duration.ofSeconds(10);
+
+        // 호출이 실패하거나 서킷 브레이커가 OPEN이면 이 시간까지 지난 응답을 대신 사용한다
+        private Duration maxStaleness = Duration.ofMinutes(10);
+
+        // 넘으면 W-TinyLFU 정책으로 제거된다
+        private long maxSize = 10_000;
+    }
+}
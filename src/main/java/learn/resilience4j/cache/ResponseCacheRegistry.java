@@ -0,0 +1,34 @@
+package learn.resilience4j.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import learn.resilience4j.cache.ResponseCacheProperties.InstanceProperties;
+import org.springframework.stereotype.Component;
+
+// response-cache.instances에 설정이 없는 이름은 기본 설정으로 만든다. 같은 이름의 서킷 브레이커가 실패로 기록하는 예외에만 지난 응답을 사용한다
+@Component
+public class ResponseCacheRegistry {
+
+    private final ResponseCacheProperties properties;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheRegistry(ResponseCacheProperties properties, CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ResponseCache cache(String name) {
+        return caches.computeIfAbsent(name, key -> new ResponseCache(key, properties.getInstances().getOrDefault(key, new InstanceProperties()),
+                                                                     ResponseCache.servesStaleOn(circuitBreakerRegistry.circuitBreaker(key).getCircuitBreakerConfig()),
+                                                                     meterRegistry, Ticker.systemTicker()));
+    }
+}
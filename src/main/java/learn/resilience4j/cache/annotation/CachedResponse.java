@@ -0,0 +1,18 @@
+package learn.resilience4j.cache.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 같은 이름의 서킷 브레이커보다 바깥에서 적용되어 서킷 브레이커가 OPEN이거나 호출이 실패하면 지난 응답을 대신 반환한다
+// 캐시 키는 메서드 이름과 인자다
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedResponse {
+
+    // response-cache.instances와 서킷 브레이커 인스턴스 이름
+    String name();
+}
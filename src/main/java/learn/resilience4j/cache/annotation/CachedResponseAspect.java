@@ -0,0 +1,51 @@
+package learn.resilience4j.cache.annotation;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import learn.resilience4j.cache.ResponseCache;
+import learn.resilience4j.cache.ResponseCacheRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CachedResponseAspect implements Ordered {
+
+    private final ResponseCacheRegistry responseCacheRegistry;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Around("@annotation(cachedResponse)")
+    public Object cache(ProceedingJoinPoint joinPoint, CachedResponse cachedResponse) throws Throwable {
+
+        ResponseCache cache = responseCacheRegistry.cache(cachedResponse.name());
+        if (!cache.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        // HALF_OPEN에서 캐시로 응답하면 서킷 브레이커가 회복을 판단할 호출을 받지 못하므로 원격 서비스를 호출한다
+        boolean halfOpen = circuitBreakerRegistry.circuitBreaker(cachedResponse.name()).getState() == State.HALF_OPEN;
+
+        return cache.get(new Key(((MethodSignature) joinPoint.getSignature()).getMethod(), Arrays.asList(joinPoint.getArgs())), halfOpen, joinPoint::proceed);
+    }
+
+    // @Coalesced 애스펙트(Ordered.LOWEST_PRECEDENCE - 6)보다 바깥. 캐시된 응답은 한도, 재시도, 서킷 브레이커를 거치지 않는다
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 7;
+    }
+
+    // 같은 이름을 쓰는 다른 빈의 같은 이름 메서드와 섞이지 않도록 선언한 클래스까지 구분하는 Method를 사용한다
+    private record Key(Method method, List<Object> args) {
+
+    }
+}
@@ -0,0 +1,18 @@
+package learn.resilience4j.circuitbreaker;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("keyed-circuitbreaker")
+@Getter
+@Setter
+public class KeyedCircuitBreakerProperties {
+
+    // 키별 서킷 브레이커의 최대 개수. 넘으면 W-TinyLFU 정책으로 제거된다
+    private long maxSize = 10_000;
+
+    // 마지막 호출 이후 이 시간이 지나면 제거된다
+    private Duration expireAfterAccess = Duration.ofMinutes(10);
+}
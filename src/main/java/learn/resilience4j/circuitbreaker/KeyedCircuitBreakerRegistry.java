@@ -0,0 +1,58 @@
+package learn.resilience4j.circuitbreaker;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+// 원격 호스트, 테넌트처럼 키마다 서킷 브레이커를 만들 때 끝없이 커지지 않도록 개수와 유휴 시간을 제한한다
+// 키별 서킷 브레이커는 이름에 해당하는 인스턴스의 설정을 따르고, "이름:키"로 이 클래스가 가진 별도의 CircuitBreakerRegistry에 등록된다
+// 애플리케이션의 CircuitBreakerRegistry에 등록하면 키마다 Micrometer 지표가 생겨 태그 수가 끝없이 늘어나므로 등록하지 않는다
+// 이벤트는 AsyncEventSink로만 넘기고, 제거될 때 EntryRemovedEvent가 발행되어 키별 이벤트 카운터도 함께 정리된다
+@Component
+public class KeyedCircuitBreakerRegistry {
+
+    private static final String DELIMITER = ":";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final CircuitBreakerRegistry keyedCircuitBreakerRegistry;
+
+    private final Cache<String, CircuitBreaker> circuitBreakers;
+
+    public KeyedCircuitBreakerRegistry(CircuitBreakerRegistry circuitBreakerRegistry, KeyedCircuitBreakerProperties properties,
+                                       @Qualifier("eventSinkCircuitBreakerRegistryEventConsumer")
+                                       RegistryEventConsumer<CircuitBreaker> registryEventConsumer) {
+        this(circuitBreakerRegistry, properties, registryEventConsumer, Ticker.systemTicker());
+    }
+
+    KeyedCircuitBreakerRegistry(CircuitBreakerRegistry circuitBreakerRegistry, KeyedCircuitBreakerProperties properties,
+                                RegistryEventConsumer<CircuitBreaker> registryEventConsumer, Ticker ticker) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.keyedCircuitBreakerRegistry = CircuitBreakerRegistry.custom().addRegistryEventConsumer(registryEventConsumer).build();
+        this.circuitBreakers = Caffeine.newBuilder()
+                                       .maximumSize(properties.getMaxSize())
+                                       .expireAfterAccess(properties.getExpireAfterAccess())
+                                       .ticker(ticker)
+                                       .executor(Runnable::run)
+                                       // 제거와 같은 키의 재생성이 엇갈리지 않도록 캐시 엔트리 잠금 안에서 실행되는 evictionListener를 사용한다
+                                       .evictionListener((String keyedName, CircuitBreaker circuitBreaker, RemovalCause cause) ->
+                                                             keyedCircuitBreakerRegistry.remove(keyedName))
+                                       .build();
+    }
+
+    public CircuitBreaker circuitBreaker(String name, String key) {
+        return circuitBreakers.get(name + DELIMITER + key, keyedName ->
+            keyedCircuitBreakerRegistry.circuitBreaker(keyedName, circuitBreakerRegistry.circuitBreaker(name).getCircuitBreakerConfig()));
+    }
+
+    public long size() {
+        circuitBreakers.cleanUp();
+        return circuitBreakers.estimatedSize();
+    }
+}
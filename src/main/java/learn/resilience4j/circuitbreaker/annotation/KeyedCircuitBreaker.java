@@ -0,0 +1,20 @@
+package learn.resilience4j.circuitbreaker.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// @CircuitBreaker(name = "serverA")와 같지만 key(SpEL)를 평가한 값마다 별도의 서킷 브레이커를 사용한다
+// 예) @KeyedCircuitBreaker(name = "serverA", key = "#host")
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface KeyedCircuitBreaker {
+
+    // 설정을 가져올 인스턴스 이름
+    String name();
+
+    String key();
+}
@@ -0,0 +1,59 @@
+package learn.resilience4j.circuitbreaker.annotation;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import learn.resilience4j.circuitbreaker.KeyedCircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class KeyedCircuitBreakerAspect implements Ordered {
+
+    private final KeyedCircuitBreakerRegistry keyedCircuitBreakerRegistry;
+
+    private final ExpressionParser expressionParser = new SpelExpressionParser();
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(keyedCircuitBreaker)")
+    public Object circuitBreak(ProceedingJoinPoint joinPoint, KeyedCircuitBreaker keyedCircuitBreaker) throws Throwable {
+
+        String key = resolveKey(joinPoint, keyedCircuitBreaker.key());
+
+        CircuitBreaker circuitBreaker = keyedCircuitBreakerRegistry.circuitBreaker(keyedCircuitBreaker.name(), key);
+
+        return circuitBreaker.executeCheckedSupplier(joinPoint::proceed);
+    }
+
+    private String resolveKey(ProceedingJoinPoint joinPoint, String key) {
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(joinPoint.getTarget(), method, joinPoint.getArgs(), parameterNameDiscoverer);
+
+        return expressions.computeIfAbsent(key, expressionParser::parseExpression).getValue(context, String.class);
+    }
+
+    // @CircuitBreaker 애스펙트(Ordered.LOWEST_PRECEDENCE - 3)와 같은 위치
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 3;
+    }
+}
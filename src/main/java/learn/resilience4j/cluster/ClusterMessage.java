@@ -0,0 +1,20 @@
+package learn.resilience4j.cluster;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+// 서킷 브레이커 하나의 상태와 윈도우 요약
+// preemptive: 다른 노드의 소식으로 OPEN이 된 경우. 정족수를 셀 때 제외해서 한 노드의 장애가 번지지 않게 한다
+public record ClusterMessage(String nodeId, String name, CircuitBreaker.State state, boolean preemptive, int numberOfCalls, int numberOfFailedCalls) {
+
+    private static final String SEPARATOR = "\t";
+
+    String encode() {
+        return String.join(SEPARATOR, nodeId, name, state.name(), String.valueOf(preemptive), String.valueOf(numberOfCalls), String.valueOf(numberOfFailedCalls));
+    }
+
+    static ClusterMessage decode(String encoded) {
+        String[] fields = encoded.split(SEPARATOR);
+        return new ClusterMessage(fields[0], fields[1], CircuitBreaker.State.valueOf(fields[2]), Boolean.parseBoolean(fields[3]),
+                                  Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
+    }
+}
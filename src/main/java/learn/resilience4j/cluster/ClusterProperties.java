@@ -0,0 +1,49 @@
+package learn.resilience4j.cluster;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("cluster")
+@Getter
+@Setter
+public class ClusterProperties {
+
+    private boolean enabled = false;
+
+    private String nodeId = UUID.randomUUID().toString();
+
+    private TransportType transport = TransportType.UDP;
+
+    // 이 수 이상의 다른 노드가 스스로 OPEN으로 전환했으면 이 노드도 OPEN으로 전환한다
+    private int quorum = 2;
+
+    // 윈도우 요약을 보내는 주기
+    private Duration summaryInterval = Duration.ofSeconds(1);
+
+    // 이 시간 동안 소식이 없는 노드의 상태와 요약은 무시한다
+    private Duration peerStateTtl = Duration.ofSeconds(10);
+
+    private Udp udp = new Udp();
+
+    public enum TransportType {
+        IN_MEMORY,
+        UDP
+    }
+
+    @Getter
+    @Setter
+    public static class Udp {
+
+        private String host = "127.0.0.1";
+
+        private int port = 7_946;
+
+        // host:port
+        private List<String> peers = new ArrayList<>();
+    }
+}
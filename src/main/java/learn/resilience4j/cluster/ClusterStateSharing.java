@@ -0,0 +1,195 @@
+package learn.resilience4j.cluster;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.IllegalStateTransitionException;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+// 서킷 브레이커의 상태 전이와 윈도우 요약을 다른 노드와 주고받는다
+// 이 노드가 CLOSED일 때 다음 중 하나면 OPEN으로 전환한다. 이후 HALF_OPEN에서의 확인은 노드마다 한다
+// - cluster.quorum 이상의 노드가 이 노드가 마지막으로 CLOSED가 된 뒤에 스스로 OPEN으로 전환했다
+// - 모든 노드의 윈도우 요약을 합친 호출 수가 minimum-number-of-calls 이상이고 실패율이 failure-rate-threshold 이상이다
+// 노드마다 minimum-number-of-calls만큼 실패를 겪지 않고도 노드 전체가 장애를 알 수 있다
+// OPEN, HALF_OPEN인 노드의 윈도우에는 OPEN이 될 때의 실패가 그대로 남아 있어서 주기마다 다시 보내고 합치면
+// HALF_OPEN 확인을 거쳐 CLOSED가 된 노드를 다시 OPEN으로 만든다. 그래서 주기적인 요약은 CLOSED일 때만 보내고,
+// 윈도우는 CLOSED인 노드의 요약과 이 노드가 마지막으로 CLOSED가 된 뒤에 받은 OPEN 전이만 합친다
+@Slf4j
+public class ClusterStateSharing implements RegistryEventConsumer<CircuitBreaker>, DisposableBean {
+
+    private final ClusterProperties properties;
+
+    private final ClusterTransport transport;
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, PeerState>> peerStates = new ConcurrentHashMap<>();
+
+    // 이 노드가 마지막으로 CLOSED로 전환한 시각(System.nanoTime)
+    private final Map<String, Long> closedAt = new ConcurrentHashMap<>();
+
+    // 다른 노드의 소식으로 OPEN으로 전환 중인 서킷 브레이커
+    private final Set<String> preemptiveTransitions = ConcurrentHashMap.newKeySet();
+
+    // 다른 노드의 소식으로 OPEN이 된 서킷 브레이커. 다른 상태로 전환하면 뺀다
+    private final Set<String> preemptivelyOpened = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cluster-summary-"));
+
+    public ClusterStateSharing(ClusterProperties properties, ClusterTransport transport) {
+        this.properties = properties;
+        this.transport = transport;
+
+        transport.subscribe(this::onMessage);
+
+        long interval = properties.getSummaryInterval().toNanos();
+        scheduler.scheduleAtFixedRate(this::broadcastSummaries, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
+        register(entryAddedEvent.getAddedEntry());
+    }
+
+    @Override
+    public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
+        circuitBreakers.remove(entryRemoveEvent.getRemovedEntry().getName());
+        closedAt.remove(entryRemoveEvent.getRemovedEntry().getName());
+    }
+
+    @Override
+    public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
+        register(entryReplacedEvent.getNewEntry());
+    }
+
+    public void register(CircuitBreaker circuitBreaker) {
+        circuitBreakers.put(circuitBreaker.getName(), circuitBreaker);
+        closedAt.put(circuitBreaker.getName(), System.nanoTime());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            String name = circuitBreaker.getName();
+            if (event.getStateTransition().getToState() == State.CLOSED) {
+                closedAt.put(name, System.nanoTime());
+            }
+            if (preemptiveTransitions.remove(name)) {
+                preemptivelyOpened.add(name);
+            } else {
+                preemptivelyOpened.remove(name);
+            }
+            // 메시지는 전이한 시점의 윈도우로 여기서 만들고, 보내는 일은 요청 스레드를 붙잡지 않도록 요약을 보내는 스레드에 맡긴다
+            broadcastLater(message(circuitBreaker, event.getStateTransition().getToState()));
+        });
+    }
+
+    public void broadcastSummaries() {
+        circuitBreakers.values().forEach(circuitBreaker -> {
+            if (circuitBreaker.getState() == State.CLOSED && circuitBreaker.getMetrics().getNumberOfBufferedCalls() > 0) {
+                transport.broadcast(message(circuitBreaker, circuitBreaker.getState()));
+            }
+        });
+    }
+
+    // 스레드가 하나이므로 전이한 순서대로 보낸다
+    private void broadcastLater(ClusterMessage message) {
+        try {
+            scheduler.execute(() -> transport.broadcast(message));
+        } catch (RejectedExecutionException e) {
+            // destroy() 뒤의 전이는 보내지 않는다
+        }
+    }
+
+    // 지금까지 맡긴 전이 메시지를 모두 보낼 때까지 기다린다
+    void awaitBroadcasts() throws InterruptedException, ExecutionException {
+        scheduler.submit(() -> { }).get();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        transport.close();
+    }
+
+    private void onMessage(ClusterMessage message) {
+        if (message.nodeId().equals(properties.getNodeId())) {
+            return;
+        }
+
+        Map<String, PeerState> states = peerStates.computeIfAbsent(message.name(), key -> new ConcurrentHashMap<>());
+        states.put(message.nodeId(), new PeerState(message, System.nanoTime()));
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(message.name());
+        if (circuitBreaker == null || circuitBreaker.getState() != State.CLOSED) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long lastClosedAt = closedAt.getOrDefault(message.name(), now);
+        long ttl = properties.getPeerStateTtl().toNanos();
+        int opened = 0;
+        int calls = circuitBreaker.getMetrics().getNumberOfBufferedCalls();
+        int failedCalls = circuitBreaker.getMetrics().getNumberOfFailedCalls();
+        // peer-state-ttl 동안 소식이 없는 노드는 지운다
+        states.values().removeIf(state -> now - state.receivedAt() > ttl);
+        for (PeerState state : states.values()) {
+            switch (state.message().state()) {
+                case OPEN -> {
+                    // 이 노드가 CLOSED가 되기 전의 OPEN은 이 노드의 HALF_OPEN 확인으로 이미 반박되었다
+                    if (state.receivedAt() - lastClosedAt > 0) {
+                        if (!state.message().preemptive()) {
+                            opened++;
+                        }
+                        calls += state.message().numberOfCalls();
+                        failedCalls += state.message().numberOfFailedCalls();
+                    }
+                }
+                case CLOSED -> {
+                    calls += state.message().numberOfCalls();
+                    failedCalls += state.message().numberOfFailedCalls();
+                }
+                default -> {
+                }
+            }
+        }
+
+        CircuitBreakerConfig config = circuitBreaker.getCircuitBreakerConfig();
+        if (opened >= properties.getQuorum()) {
+            open(circuitBreaker, "%d peers opened".formatted(opened));
+        } else if (calls >= config.getMinimumNumberOfCalls() && failedCalls * 100f / calls >= config.getFailureRateThreshold()) {
+            open(circuitBreaker, "cluster failure rate %.1f%% of %d calls".formatted(failedCalls * 100f / calls, calls));
+        }
+    }
+
+    private void open(CircuitBreaker circuitBreaker, String reason) {
+        preemptiveTransitions.add(circuitBreaker.getName());
+        try {
+            circuitBreaker.transitionToOpenState();
+            log.info("CircuitBreaker '{}' opened by cluster: {}", circuitBreaker.getName(), reason);
+        } catch (IllegalStateTransitionException e) {
+            // 그 사이에 다른 스레드가 전환했다
+            preemptiveTransitions.remove(circuitBreaker.getName());
+        }
+    }
+
+    private ClusterMessage message(CircuitBreaker circuitBreaker, State state) {
+        CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        return new ClusterMessage(properties.getNodeId(), circuitBreaker.getName(), state, preemptivelyOpened.contains(circuitBreaker.getName()),
+                                  metrics.getNumberOfBufferedCalls(), metrics.getNumberOfFailedCalls());
+    }
+
+    private record PeerState(ClusterMessage message, long receivedAt) {
+
+    }
+}
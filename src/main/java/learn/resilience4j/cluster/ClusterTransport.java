@@ -0,0 +1,14 @@
+package learn.resilience4j.cluster;
+
+import java.util.function.Consumer;
+
+// 다른 노드에 메시지를 보내고 받는 방법. 전달을 보장하지 않아도 된다
+public interface ClusterTransport extends AutoCloseable {
+
+    void broadcast(ClusterMessage message);
+
+    void subscribe(Consumer<ClusterMessage> listener);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,42 @@
+package learn.resilience4j.cluster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// 같은 Hub에 연결된 노드끼리 보내는 쪽 스레드에서 바로 전달한다. 한 JVM에서 여러 노드를 흉내 내는 테스트용
+public class InMemoryClusterTransport implements ClusterTransport {
+
+    private final Hub hub;
+
+    private final List<Consumer<ClusterMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    public InMemoryClusterTransport(Hub hub) {
+        this.hub = hub;
+        hub.transports.add(this);
+    }
+
+    @Override
+    public void broadcast(ClusterMessage message) {
+        for (InMemoryClusterTransport transport : hub.transports) {
+            if (transport != this) {
+                transport.listeners.forEach(listener -> listener.accept(message));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        hub.transports.remove(this);
+    }
+
+    public static class Hub {
+
+        private final List<InMemoryClusterTransport> transports = new CopyOnWriteArrayList<>();
+    }
+}
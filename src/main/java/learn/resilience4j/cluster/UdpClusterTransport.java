@@ -0,0 +1,97 @@
+package learn.resilience4j.cluster;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+// 메시지 하나를 UDP 패킷 하나로 cluster.udp.peers의 모든 노드에 보낸다. 잃어버린 패킷은 다음 요약이 보완한다
+@Slf4j
+public class UdpClusterTransport implements ClusterTransport {
+
+    private static final int MAX_PACKET_SIZE = 1_024;
+
+    private final DatagramSocket socket;
+
+    private final List<InetSocketAddress> peers;
+
+    private final List<Consumer<ClusterMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Thread receiver;
+
+    public UdpClusterTransport(InetSocketAddress address, List<InetSocketAddress> peers) {
+        try {
+            this.socket = new DatagramSocket(address);
+        } catch (SocketException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.peers = peers;
+        this.receiver = new Thread(this::receive, "cluster-udp-" + address.getPort());
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    public static UdpClusterTransport of(ClusterProperties.Udp properties) {
+        List<InetSocketAddress> peers = properties.getPeers().stream().map(peer -> {
+            int separator = peer.lastIndexOf(':');
+            return new InetSocketAddress(peer.substring(0, separator), Integer.parseInt(peer.substring(separator + 1)));
+        }).toList();
+        return new UdpClusterTransport(new InetSocketAddress(properties.getHost(), properties.getPort()), peers);
+    }
+
+    @Override
+    public void broadcast(ClusterMessage message) {
+        byte[] payload = message.encode().getBytes(StandardCharsets.UTF_8);
+        if (payload.length > MAX_PACKET_SIZE) {
+            log.warn("Cluster message for '{}' is too large: {} bytes", message.name(), payload.length);
+            return;
+        }
+
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(payload, payload.length, peer));
+            } catch (IOException e) {
+                log.debug("Failed to send cluster message to {}", peer, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterMessage> listener) {
+        listeners.add(listener);
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_PACKET_SIZE];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                ClusterMessage message = ClusterMessage.decode(new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8));
+                listeners.forEach(listener -> listener.accept(message));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.debug("Failed to receive cluster message", e);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Ignored malformed cluster message", e);
+            }
+        }
+    }
+}
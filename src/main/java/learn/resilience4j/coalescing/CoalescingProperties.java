@@ -0,0 +1,15 @@
+package learn.resilience4j.coalescing;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("coalescing")
+@Getter
+@Setter
+public class CoalescingProperties {
+
+    // 진행 중인 호출을 기다리는 최대 시간. 먼저 들어온 호출이 멈춰도 기다리던 요청 스레드를 붙잡아 두지 않는다
+    private Duration maxWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,72 @@
+package learn.resilience4j.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// 같은 키의 호출이 진행 중이면 새로 호출하지 않고 진행 중인 호출의 결과(또는 예외)를 함께 받는다
+// 먼저 들어온 호출만 서킷 브레이커를 거치므로 서킷 브레이커에는 한 번만 기록된다
+// 기다리는 호출은 max-wait이 지나면 TimeoutException으로, 인터럽트되면 InterruptedException으로 끝난다. 먼저 들어온 호출은 계속 진행한다
+public class SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final long maxWaitNanos;
+
+    private final Counter leaders;
+
+    private final Counter coalesced;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.leaders = Counter.builder("coalescing.calls").tag("name", name).tag("result", "leader").register(meterRegistry);
+        this.coalesced = Counter.builder("coalescing.calls").tag("name", name).tag("result", "coalesced").register(meterRegistry);
+    }
+
+    public Object execute(Object key, Call call) throws Throwable {
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        leaders.increment();
+        try {
+            Object value = call.call();
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Coalesced call did not complete within " + Duration.ofNanos(maxWaitNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call {
+
+        Object call() throws Throwable;
+    }
+}
@@ -0,0 +1,25 @@
+package learn.resilience4j.coalescing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SingleFlightRegistry {
+
+    private final CoalescingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SingleFlight> singleFlights = new ConcurrentHashMap<>();
+
+    public SingleFlightRegistry(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public SingleFlight singleFlight(String name) {
+        return singleFlights.computeIfAbsent(name, key -> new SingleFlight(key, properties.getMaxWait(), meterRegistry));
+    }
+}
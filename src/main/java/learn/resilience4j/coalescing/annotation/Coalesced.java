@@ -0,0 +1,18 @@
+package learn.resilience4j.coalescing.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 메서드 이름과 인자가 같은 동시 호출을 하나로 합친다
+// @CachedResponse보다 안쪽, @AdaptiveConcurrencyLimit, @Retry, @CircuitBreaker보다 바깥에서 적용된다
+// 동기 메서드에만 사용한다
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    String name();
+}
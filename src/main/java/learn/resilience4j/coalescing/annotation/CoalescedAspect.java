@@ -0,0 +1,38 @@
+package learn.resilience4j.coalescing.annotation;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import learn.resilience4j.coalescing.SingleFlightRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CoalescedAspect implements Ordered {
+
+    private final SingleFlightRegistry singleFlightRegistry;
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        return singleFlightRegistry.singleFlight(coalesced.name())
+                                   .execute(new Key(((MethodSignature) joinPoint.getSignature()).getMethod(), Arrays.asList(joinPoint.getArgs())), joinPoint::proceed);
+    }
+
+    // @Retry 애스펙트(resilience4j.retry.retry-aspect-order, Ordered.LOWEST_PRECEDENCE - 5)보다 바깥
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 6;
+    }
+
+    // 같은 이름을 쓰는 다른 빈의 같은 이름 메서드와 섞이지 않도록 선언한 클래스까지 구분하는 Method를 사용한다
+    private record Key(Method method, List<Object> args) {
+
+    }
+}
@@ -1,54 +1,199 @@
 package learn.resilience4j.config;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
 import io.github.resilience4j.core.registry.EntryAddedEvent;
 import io.github.resilience4j.core.registry.EntryRemovedEvent;
 import io.github.resilience4j.core.registry.EntryReplacedEvent;
 import io.github.resilience4j.core.registry.RegistryEventConsumer;
 import io.github.resilience4j.retry.Retry;
-import lombok.extern.slf4j.Slf4j;
+import io.github.resilience4j.spelresolver.SpelResolver;
+import io.github.resilience4j.spring6.fallback.FallbackDecorators;
+import io.github.resilience4j.spring6.fallback.FallbackExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import learn.resilience4j.bulkhead.BulkheadMetrics;
+import learn.resilience4j.batch.BatchProperties;
+import learn.resilience4j.cache.ResponseCacheProperties;
+import learn.resilience4j.circuitbreaker.KeyedCircuitBreakerProperties;
+import learn.resilience4j.cluster.ClusterProperties;
+import learn.resilience4j.cluster.ClusterProperties.TransportType;
+import learn.resilience4j.cluster.ClusterStateSharing;
+import learn.resilience4j.cluster.ClusterTransport;
+import learn.resilience4j.cluster.InMemoryClusterTransport;
+import learn.resilience4j.cluster.UdpClusterTransport;
+import learn.resilience4j.coalescing.CoalescingProperties;
+import learn.resilience4j.event.AsyncEventSink;
+import learn.resilience4j.event.AsyncEventSinkProperties;
+import learn.resilience4j.fallback.FallbackDispatchTable;
+import learn.resilience4j.fallback.PrecomputedFallbackExecutor;
+import learn.resilience4j.hedging.HedgingProperties;
+import learn.resilience4j.latency.LatencyHistogramProperties;
+import learn.resilience4j.limiter.AdaptiveConcurrencyLimiterProperties;
+import learn.resilience4j.limiter.ClientRateLimitFilter;
+import learn.resilience4j.limiter.ClientRateLimiter;
+import learn.resilience4j.limiter.ClientRateLimiterProperties;
+import learn.resilience4j.retry.RetryBudget;
+import learn.resilience4j.retry.RetryBudgetProperties;
+import learn.resilience4j.snapshot.CircuitBreakerSnapshotProperties;
+import learn.resilience4j.snapshot.CircuitBreakerSnapshotter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 @Configuration
-@Slf4j
+@EnableConfigurationProperties({
+    KeyedCircuitBreakerProperties.class,
+    AdaptiveConcurrencyLimiterProperties.class,
+    ResponseCacheProperties.class,
+    CoalescingProperties.class,
+    HedgingProperties.class,
+    AsyncEventSinkProperties.class,
+    LatencyHistogramProperties.class,
+    RetryBudgetProperties.class,
+    ClusterProperties.class,
+    CircuitBreakerSnapshotProperties.class,
+    ClientRateLimiterProperties.class,
+    BatchProperties.class
+})
 public class Resilience4jConfig {
 
-    //@Bean
-    public RegistryEventConsumer<CircuitBreaker> circuitBreakerRegistryEventConsumer() {
+    // TimeLimiter가 제한 시간이 지나면 Future.cancel(true)로 인터럽트할 수 있도록 원격 호출을 실행하는 스레드
+    // 동시 호출 수는 bulkhead가 제한한다. 호출하는 쪽이 인터럽트되면 bulkhead 허가를 반납하기 전에 Future도 취소해야 한다(ServerCService.slowness)
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService timeLimiterExecutorService() {
+        return Executors.newCachedThreadPool(new CustomizableThreadFactory("time-limiter-"));
+    }
+
+    // 설정에 없는 이름으로 만드는 Retry 인스턴스(default 설정)에 재시도 예산을 적용한다
+    // 설정에 있는 인스턴스는 RetryCustomizerRegistrar가 인스턴스 이름마다 적용한다
+    @Bean
+    public RetryConfigCustomizer retryBudgetCustomizer(RetryBudget retryBudget) {
+        return RetryConfigCustomizer.of("default", retryBudget::decorate);
+    }
+
+    // resilience4j 애스펙트가 fallback을 호출할 때 시작할 때 만들어 둔 MethodHandle 디스패치 테이블을 쓴다
+    @Bean
+    @Primary
+    public FallbackExecutor precomputedFallbackExecutor(SpelResolver spelResolver, FallbackDecorators fallbackDecorators, FallbackDispatchTable fallbackDispatchTable) {
+        return new PrecomputedFallbackExecutor(spelResolver, fallbackDecorators, fallbackDispatchTable);
+    }
+
+    // 서킷 브레이커 상태를 다른 노드와 주고받는다. cluster.enabled=true일 때만 등록한다
+    @Bean
+    @ConditionalOnProperty(value = "cluster.enabled", havingValue = "true")
+    public ClusterStateSharing clusterStateSharing(ClusterProperties properties) {
+        ClusterTransport transport = properties.getTransport() == TransportType.UDP ? UdpClusterTransport.of(properties.getUdp())
+                                                                                    : new InMemoryClusterTransport(new InMemoryClusterTransport.Hub());
+        return new ClusterStateSharing(properties, transport);
+    }
+
+    // 서킷 브레이커 상태를 파일에 저장하고 시작할 때 복원한다. circuitbreaker-snapshot.enabled=true일 때만 등록한다
+    @Bean
+    @ConditionalOnProperty(value = "circuitbreaker-snapshot.enabled", havingValue = "true")
+    public CircuitBreakerSnapshotter circuitBreakerSnapshotter(CircuitBreakerSnapshotProperties properties, CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new CircuitBreakerSnapshotter(properties, circuitBreakerRegistry, Clock.systemUTC());
+    }
+
+    // 클라이언트마다 요청 수를 제한한다. client-rate-limiter.enabled=true일 때만 등록한다
+    @Bean
+    @ConditionalOnProperty(value = "client-rate-limiter.enabled", havingValue = "true")
+    public ClientRateLimitFilter clientRateLimitFilter(ClientRateLimiterProperties properties, MeterRegistry meterRegistry) {
+        return new ClientRateLimitFilter(new ClientRateLimiter(properties, meterRegistry), properties.getKeyHeader(), properties.getApiKeys());
+    }
+
+    // 요청 스레드에서 로그를 쓰지 않도록 이벤트를 AsyncEventSink로 넘긴다
+    // circuitBreakerRegistryEventConsumer, retryRegistryEventConsumer는 resilience4j 자동 설정이 모아서 등록하는 @Primary 빈 이름이므로 쓰지 않는다
+    @Bean
+    public RegistryEventConsumer<CircuitBreaker> eventSinkCircuitBreakerRegistryEventConsumer(AsyncEventSink eventSink) {
         return new RegistryEventConsumer<>() {
             @Override
             public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
-                entryAddedEvent.getAddedEntry().getEventPublisher().onEvent(event -> log.info("{}", event));
+                CircuitBreaker circuitBreaker = entryAddedEvent.getAddedEntry();
+                circuitBreaker.getEventPublisher().onEvent(eventSink.circuitBreakerEventConsumer(circuitBreaker.getName()));
             }
 
             @Override
             public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
-
+                // KeyedCircuitBreakerRegistry에서 제거된 키별 서킷 브레이커
+                eventSink.removeCircuitBreaker(entryRemoveEvent.getRemovedEntry().getName());
             }
 
             @Override
             public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
-
+                CircuitBreaker circuitBreaker = entryReplacedEvent.getNewEntry();
+                circuitBreaker.getEventPublisher().onEvent(eventSink.circuitBreakerEventConsumer(circuitBreaker.getName()));
             }
         };
     }
 
-    //@Bean
-    public RegistryEventConsumer<Retry> retryRegistryEventConsumer() {
+    @Bean
+    public RegistryEventConsumer<Retry> eventSinkRetryRegistryEventConsumer(AsyncEventSink eventSink) {
         return new RegistryEventConsumer<>() {
             @Override
             public void onEntryAddedEvent(EntryAddedEvent<Retry> entryAddedEvent) {
-                entryAddedEvent.getAddedEntry().getEventPublisher().onEvent(event -> log.info("{}", event));
+                Retry retry = entryAddedEvent.getAddedEntry();
+                retry.getEventPublisher().onEvent(eventSink.retryEventConsumer(retry.getName()));
             }
 
             @Override
             public void onEntryRemovedEvent(EntryRemovedEvent<Retry> entryRemoveEvent) {
-
+                eventSink.removeRetry(entryRemoveEvent.getRemovedEntry().getName());
             }
 
             @Override
             public void onEntryReplacedEvent(EntryReplacedEvent<Retry> entryReplacedEvent) {
+                Retry retry = entryReplacedEvent.getNewEntry();
+                retry.getEventPublisher().onEvent(eventSink.retryEventConsumer(retry.getName()));
+            }
+        };
+    }
+
+    // bulkheadRegistryEventConsumer, threadPoolBulkheadRegistryEventConsumer는 resilience4j 자동 설정의 빈 이름이므로 쓰지 않는다
+    @Bean
+    public RegistryEventConsumer<Bulkhead> bulkheadMetricsRegistryEventConsumer(BulkheadMetrics bulkheadMetrics) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<Bulkhead> entryAddedEvent) {
+                bulkheadMetrics.bind(entryAddedEvent.getAddedEntry());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<Bulkhead> entryRemoveEvent) {
+                bulkheadMetrics.remove(entryRemoveEvent.getRemovedEntry().getName(), BulkheadMetrics.SEMAPHORE);
+            }
 
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<Bulkhead> entryReplacedEvent) {
+                bulkheadMetrics.bind(entryReplacedEvent.getNewEntry());
+            }
+        };
+    }
+
+    @Bean
+    public RegistryEventConsumer<ThreadPoolBulkhead> threadPoolBulkheadMetricsRegistryEventConsumer(BulkheadMetrics bulkheadMetrics) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<ThreadPoolBulkhead> entryAddedEvent) {
+                bulkheadMetrics.bind(entryAddedEvent.getAddedEntry());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<ThreadPoolBulkhead> entryRemoveEvent) {
+                bulkheadMetrics.remove(entryRemoveEvent.getRemovedEntry().getName(), BulkheadMetrics.THREAD_POOL);
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<ThreadPoolBulkhead> entryReplacedEvent) {
+                bulkheadMetrics.bind(entryReplacedEvent.getNewEntry());
             }
         };
     }
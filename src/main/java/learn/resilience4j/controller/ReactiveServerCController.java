@@ -0,0 +1,39 @@
+package learn.resilience4j.controller;
+
+import learn.resilience4j.service.ReactiveServerCService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Circuit Breaker + Retry 테스트용. ServerCController의 리액티브 버전
+// spring-boot-starter-web과 webflux가 함께 있으면 Spring MVC(Tomcat)가 실행되므로 Netty 이벤트 루프가 아니라 서블릿 비동기 요청으로 처리된다
+// Mono가 끝날 때까지 Tomcat 스레드는 반환되지만 응답을 쓰는 일은 Tomcat 스레드가 한다
+@RestController
+@RequestMapping("/reactive/serverC")
+@RequiredArgsConstructor
+public class ReactiveServerCController {
+
+    private final ReactiveServerCService service;
+
+    @GetMapping("/success")
+    public Mono<String> success() {
+        return service.success();
+    }
+
+    @GetMapping("/failure")
+    public Mono<String> failure() {
+        return service.failure();
+    }
+
+    @GetMapping("/failureWithFallback")
+    public Mono<String> failureWithFallback() {
+        return service.failureWithFallback();
+    }
+
+    @GetMapping("/slowness")
+    public Mono<String> slowness() {
+        return service.slowness();
+    }
+}
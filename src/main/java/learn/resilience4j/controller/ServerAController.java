@@ -1,10 +1,18 @@
 package learn.resilience4j.controller;
 
+import java.util.List;
+import learn.resilience4j.batch.BatchItemResult;
+import learn.resilience4j.batch.BatchProperties;
 import learn.resilience4j.service.ServerAService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 // Circuit Breaker 테스트용
 @RestController
@@ -14,6 +22,8 @@ public class ServerAController {
 
     private final ServerAService service;
 
+    private final BatchProperties batchProperties;
+
     @GetMapping("/success")
     public String success() {
         return service.success();
@@ -28,4 +38,33 @@ public class ServerAController {
     public String failureWithFallback() {
         return service.failureWithFallback();
     }
+
+    @GetMapping("/slowness")
+    public String slowness() throws Exception {
+        return service.slowness();
+    }
+
+    @GetMapping("/hosts/{host}/success")
+    public String success(@PathVariable String host) {
+        return service.success(host);
+    }
+
+    @GetMapping("/hosts/{host}/failure")
+    public String failure(@PathVariable String host) {
+        return service.failure(host);
+    }
+
+    // 본문: ["success", "failure", ...]. 항목마다 결과를 같은 순서로 응답한다
+    @PostMapping("/batch")
+    public List<BatchItemResult> batch(@RequestBody List<String> operations) {
+        if (operations.size() > batchProperties.getMaxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch size exceeds " + batchProperties.getMaxSize());
+        }
+        for (String operation : operations) {
+            if (!ServerAService.BATCH_OPERATIONS.contains(operation)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown operation: " + operation);
+            }
+        }
+        return service.batch(operations);
+    }
 }
@@ -1,5 +1,6 @@
 package learn.resilience4j.controller;
 
+import java.util.concurrent.CompletableFuture;
 import learn.resilience4j.service.ServerBService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,4 +24,14 @@ public class ServerBController {
     public String failure() {
         return service.failure();
     }
+
+    @GetMapping("/async/success")
+    public CompletableFuture<String> successAsync() {
+        return service.successAsync();
+    }
+
+    @GetMapping("/async/failure")
+    public CompletableFuture<String> failureAsync() {
+        return service.failureAsync();
+    }
 }
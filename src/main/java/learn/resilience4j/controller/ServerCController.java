@@ -1,5 +1,6 @@
 package learn.resilience4j.controller;
 
+import java.util.concurrent.CompletableFuture;
 import learn.resilience4j.service.ServerCService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,8 +25,28 @@ public class ServerCController {
         return service.failure();
     }
 
+    @GetMapping("/async/success")
+    public CompletableFuture<String> successAsync() {
+        return service.successAsync();
+    }
+
+    @GetMapping("/async/failure")
+    public CompletableFuture<String> failureAsync() {
+        return service.failureAsync();
+    }
+
     @GetMapping("/failureWithFallback")
     public String failureWithFallback() {
         return service.failureWithFallback();
     }
+
+    @GetMapping("/slowness")
+    public String slowness() throws Exception {
+        return service.slowness();
+    }
+
+    @GetMapping("/async/slowness")
+    public CompletableFuture<String> slownessAsync() {
+        return service.slownessAsync();
+    }
 }
@@ -0,0 +1,98 @@
+package learn.resilience4j.decorator;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.functions.CheckedFunction;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.retry.Retry;
+import learn.resilience4j.fallback.FallbackDispatcher;
+import learn.resilience4j.latency.LatencyRecorder;
+
+// 생성한 Decorator가 메서드 하나마다 가지고 있는 resilience4j 인스턴스들
+// 애스펙트와 같은 순서로 감싼다: 호출 지연 기록( Retry( CircuitBreaker( 시도 지연 기록( Bulkhead( 메서드 ) ) ) ) )
+// fallback은 fallbackMethod를 지정한 애너테이션의 인스턴스 바로 바깥에서 호출한다
+public final class Decoration {
+
+    private final LatencyRecorder latencyRecorder;
+
+    // 감싸는 순서는 메서드마다 정해져 있으므로 만들 때 한 번 조립하고, 호출마다 바뀌는 대상과 인자는 Invocation으로 넘긴다
+    private final CheckedFunction<Invocation, Object> chain;
+
+    Decoration(Retry retry, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+               FallbackDispatcher retryFallback, FallbackDispatcher circuitBreakerFallback, LatencyRecorder latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
+        this.chain = chain(retry, circuitBreaker, bulkhead, retryFallback, circuitBreakerFallback, latencyRecorder);
+    }
+
+    private record Invocation(Object target, Object[] args, CheckedSupplier<?> supplier) {
+
+    }
+
+    // 메서드가 선언한 checked exception은 그대로 던진다
+    @SuppressWarnings("unchecked")
+    public <T> T call(Object target, Object[] args, CheckedSupplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            T result = (T) chain.apply(new Invocation(target, args, supplier));
+            latencyRecorder.recordCall(System.nanoTime() - start);
+            return result;
+        } catch (Throwable e) {
+            latencyRecorder.recordCall(System.nanoTime() - start);
+            throw Decoration.<RuntimeException>sneakyThrow(e);
+        }
+    }
+
+    private static CheckedFunction<Invocation, Object> chain(Retry retry, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                                                             FallbackDispatcher retryFallback, FallbackDispatcher circuitBreakerFallback,
+                                                             LatencyRecorder latencyRecorder) {
+        CheckedFunction<Invocation, Object> decorated = invocation -> invocation.supplier().get();
+        if (bulkhead != null) {
+            decorated = Bulkhead.decorateCheckedFunction(bulkhead, decorated);
+        }
+        decorated = recordAttempt(decorated, latencyRecorder);
+        if (circuitBreaker != null) {
+            decorated = withFallback(CircuitBreaker.decorateCheckedFunction(circuitBreaker, decorated), circuitBreakerFallback);
+        }
+        if (retry != null) {
+            decorated = withFallback(Retry.decorateCheckedFunction(retry, decorated), retryFallback);
+        }
+        return decorated;
+    }
+
+    // 서킷 브레이커나 bulkhead가 거절한 시도는 원격 서비스를 호출하지 않았으므로 기록하지 않는다 (AttemptLatencyAspect와 같다)
+    private static CheckedFunction<Invocation, Object> recordAttempt(CheckedFunction<Invocation, Object> function, LatencyRecorder latencyRecorder) {
+        return invocation -> {
+            long start = System.nanoTime();
+            try {
+                Object result = function.apply(invocation);
+                latencyRecorder.recordAttempt(System.nanoTime() - start);
+                return result;
+            } catch (Throwable e) {
+                if (!(e instanceof CallNotPermittedException) && !(e instanceof BulkheadFullException)) {
+                    latencyRecorder.recordAttempt(System.nanoTime() - start);
+                }
+                throw e;
+            }
+        };
+    }
+
+    private static CheckedFunction<Invocation, Object> withFallback(CheckedFunction<Invocation, Object> function, FallbackDispatcher fallback) {
+        if (fallback == null) {
+            return function;
+        }
+        return invocation -> {
+            try {
+                return function.apply(invocation);
+            } catch (Throwable e) {
+                return fallback.dispatch(invocation.target(), invocation.args(), e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+}
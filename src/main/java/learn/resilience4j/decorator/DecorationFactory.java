@@ -0,0 +1,69 @@
+package learn.resilience4j.decorator;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.retry.annotation.Retry;
+import java.lang.reflect.Method;
+import learn.resilience4j.fallback.FallbackDispatchTable;
+import learn.resilience4j.fallback.FallbackDispatcher;
+import learn.resilience4j.latency.LatencyRecorderRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// 생성한 Decorator가 초기화할 때 상위 클래스 메서드의 애너테이션으로 Decoration을 만든다
+// 애너테이션은 메서드마다 한 번만 읽고, 호출할 때는 레지스트리를 찾지 않는다
+@Component
+@RequiredArgsConstructor
+public class DecorationFactory {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final RetryRegistry retryRegistry;
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private final FallbackDispatchTable fallbackDispatchTable;
+
+    private final LatencyRecorderRegistry latencyRecorderRegistry;
+
+    public Decoration create(Class<?> type, String methodName, Class<?>... parameterTypes) {
+        Method method;
+        try {
+            method = type.getDeclaredMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Decorated method not found. Recompile " + type.getName(), e);
+        }
+
+        CircuitBreaker circuitBreaker = method.getAnnotation(CircuitBreaker.class);
+        Retry retry = method.getAnnotation(Retry.class);
+        Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+        if (bulkhead != null && bulkhead.type() != Bulkhead.Type.SEMAPHORE) {
+            throw new IllegalStateException("Only semaphore bulkheads can be decorated: " + method);
+        }
+
+        // 지연은 LatencyRecordingAspect처럼 서킷 브레이커 이름이 있으면 그 이름으로 기록한다
+        String name = circuitBreaker != null ? circuitBreaker.name() : retry.name();
+
+        return new Decoration(retry == null ? null : retryRegistry.retry(retry.name()),
+                              circuitBreaker == null ? null : circuitBreakerRegistry.circuitBreaker(circuitBreaker.name()),
+                              bulkhead == null ? null : bulkheadRegistry.bulkhead(bulkhead.name()),
+                              retry == null ? null : fallback(method, retry.fallbackMethod()),
+                              circuitBreaker == null ? null : fallback(method, circuitBreaker.fallbackMethod()),
+                              latencyRecorderRegistry.recorder(name));
+    }
+
+    private FallbackDispatcher fallback(Method method, String fallbackMethod) {
+        if (fallbackMethod.isEmpty()) {
+            return null;
+        }
+        FallbackDispatcher dispatcher = fallbackDispatchTable.dispatcher(method, fallbackMethod);
+        if (dispatcher == null) {
+            // SpEL로 지정한 fallbackMethod는 FallbackDispatchTable이 미리 만들지 않는다
+            throw new IllegalStateException("Fallback method '" + fallbackMethod + "' cannot be decorated: " + method);
+        }
+        return dispatcher;
+    }
+}
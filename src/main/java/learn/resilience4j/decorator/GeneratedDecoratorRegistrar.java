@@ -0,0 +1,60 @@
+package learn.resilience4j.decorator;
+
+import java.io.IOException;
+import java.util.Properties;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Component;
+
+// generated-decorators.enabled=true이면 processor 모듈이 만든 <클래스>Decorator를 원래 클래스 대신 빈으로 등록한다
+// 재정의한 메서드에는 resilience4j 애너테이션이 없으므로 그 메서드는 AOP 프록시의 resilience4j 애스펙트를 거치지 않는다
+@Component
+public class GeneratedDecoratorRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    static final String INDEX = "META-INF/generated-decorators.properties";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        if (!environment.getProperty("generated-decorators.enabled", Boolean.class, false)) {
+            return;
+        }
+
+        Properties decorators;
+        try {
+            decorators = PropertiesLoaderUtils.loadAllProperties(INDEX, getClass().getClassLoader());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + INDEX, e);
+        }
+
+        for (String beanName : registry.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = registry.getBeanDefinition(beanName);
+            String decorator = beanDefinition.getBeanClassName() == null ? null : decorators.getProperty(beanDefinition.getBeanClassName());
+            if (decorator == null) {
+                continue;
+            }
+            // 이미 읽은 원래 클래스가 있으면 버린다
+            if (beanDefinition instanceof AbstractBeanDefinition abstractBeanDefinition) {
+                abstractBeanDefinition.setBeanClass(null);
+            }
+            beanDefinition.setBeanClassName(decorator);
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+
+    }
+}
@@ -0,0 +1,155 @@
+package learn.resilience4j.event;
+
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.retry.event.RetryEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+// 요청 스레드에서 이벤트를 로그로 쓰지 않고 백그라운드 스레드에 넘긴다
+// - 호출 성공, 실패처럼 자주 발생하는 이벤트는 LongAdder로 세기만 하고 flush-interval마다 개수를 기록한다
+// - 상태 전이처럼 드문 이벤트는 잠금 없는 버퍼에 넣어 바로 기록한다. 버퍼가 가득 차면 버리고 버린 개수를 센다
+// 버퍼가 비어 있으면 백그라운드 스레드는 다음 flush까지 잠들고, 이벤트를 넣은 스레드가 깨운다
+@Component
+@Slf4j
+public class AsyncEventSink implements DisposableBean {
+
+    private final MpscRingBuffer<Object> buffer;
+
+    private final long flushIntervalNanos;
+
+    private final Map<String, EventCounters> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private long reportedDropped;
+
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+
+    private volatile boolean parked;
+
+    public AsyncEventSink(AsyncEventSinkProperties properties) {
+        this.buffer = new MpscRingBuffer<>(properties.getCapacity());
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.drainer = new Thread(this::drain, "event-sink");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    public EventConsumer<CircuitBreakerEvent> circuitBreakerEventConsumer(String name) {
+        EventCounters circuitBreakerCounters = counters("CircuitBreaker '" + name + "'", CircuitBreakerEvent.Type.values());
+        return event -> {
+            switch (event.getEventType()) {
+                case SUCCESS, ERROR, IGNORED_ERROR, NOT_PERMITTED -> circuitBreakerCounters.increment(event.getEventType());
+                default -> publish(event);
+            }
+        };
+    }
+
+    // Retry 이벤트는 모두 호출마다 발생한다
+    public EventConsumer<RetryEvent> retryEventConsumer(String name) {
+        EventCounters retryCounters = counters("Retry '" + name + "'", RetryEvent.Type.values());
+        return event -> retryCounters.increment(event.getEventType());
+    }
+
+    // KeyedCircuitBreakerRegistry에서 제거된 키별 서킷 브레이커의 카운터가 쌓이지 않도록 남은 개수를 넘기고 지운 뒤 제거를 기록한다
+    public void removeCircuitBreaker(String name) {
+        remove("CircuitBreaker '" + name + "'");
+    }
+
+    public void removeRetry(String name) {
+        remove("Retry '" + name + "'");
+    }
+
+    public void publish(Object event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        // offer의 CAS(volatile 쓰기) 뒤에 읽으므로, 잠들기 직전 버퍼가 비었는지 확인한 drainer와 서로의 쓰기를 놓치지 않는다
+        if (parked) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(1));
+    }
+
+    // 같은 이름으로 다시 등록되면(EntryReplacedEvent) 기존 카운터를 이어서 사용한다
+    private EventCounters counters(String source, Enum<?>[] types) {
+        return counters.computeIfAbsent(source, key -> new EventCounters(key, types));
+    }
+
+    private void remove(String source) {
+        EventCounters removed = counters.remove(source);
+        if (removed != null) {
+            String summary = removed.drain();
+            if (summary != null) {
+                publish(summary);
+            }
+        }
+        publish(source + " removed");
+    }
+
+    private void drain() {
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        while (running) {
+            Object event;
+            boolean drained = false;
+            while ((event = buffer.poll()) != null) {
+                log.info("{}", event);
+                drained = true;
+            }
+
+            if (System.nanoTime() - nextFlush >= 0) {
+                flush();
+                nextFlush = System.nanoTime() + flushIntervalNanos;
+            }
+
+            if (!drained) {
+                parked = true;
+                if (buffer.isEmpty() && running) {
+                    LockSupport.parkNanos(this, Math.max(nextFlush - System.nanoTime(), 0));
+                }
+                parked = false;
+            }
+        }
+
+        Object event;
+        while ((event = buffer.poll()) != null) {
+            log.info("{}", event);
+        }
+        flush();
+    }
+
+    private void flush() {
+        for (EventCounters eventCounters : counters.values()) {
+            String summary = eventCounters.drain();
+            if (summary != null) {
+                log.info("{}", summary);
+            }
+        }
+
+        long totalDropped = dropped.sum();
+        if (totalDropped > reportedDropped) {
+            log.warn("{} events dropped", totalDropped - reportedDropped);
+            reportedDropped = totalDropped;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package learn.resilience4j.event;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("event-sink")
+@Getter
+@Setter
+public class AsyncEventSinkProperties {
+
+    // 상태 전이처럼 바로 기록할 이벤트를 담아둘 버퍼 크기. 가득 차면 버리고 개수만 센다
+    private int capacity = 8_192;
+
+    // 호출 성공, 실패처럼 자주 발생하는 이벤트의 개수를 기록하는 주기
+    private Duration flushInterval = Duration.ofSeconds(10);
+}
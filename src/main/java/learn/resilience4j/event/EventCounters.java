@@ -0,0 +1,40 @@
+package learn.resilience4j.event;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// 인스턴스 하나의 이벤트 종류별 개수
+class EventCounters {
+
+    private final String source;
+
+    private final Enum<?>[] types;
+
+    private final LongAdder[] counts;
+
+    EventCounters(String source, Enum<?>[] types) {
+        this.source = source;
+        this.types = types;
+        this.counts = new LongAdder[types.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void increment(Enum<?> type) {
+        counts[type.ordinal()].increment();
+    }
+
+    // 지난 호출 이후의 개수. 0이면 null
+    String drain() {
+        StringBuilder summary = null;
+        for (int i = 0; i < counts.length; i++) {
+            long count = counts[i].sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            summary = summary == null ? new StringBuilder(source).append(':') : summary.append(',');
+            summary.append(' ').append(types[i].name()).append('=').append(count);
+        }
+        return summary == null ? null : summary.toString();
+    }
+}
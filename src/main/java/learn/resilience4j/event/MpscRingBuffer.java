@@ -0,0 +1,57 @@
+package learn.resilience4j.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 여러 스레드가 넣고 한 스레드가 꺼내는 잠금 없는 고정 크기 원형 버퍼
+// 넣는 쪽은 CAS로 칸을 배정받고, 가득 차면 기다리지 않고 false를 반환한다
+class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    private volatile long consumerIndex;
+
+    // capacity는 2의 거듭제곱으로 올림한다
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(E element) {
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex >= buffer.length()) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) (index & mask), element);
+                return true;
+            }
+        }
+    }
+
+    // 칸을 배정받았지만 아직 쓰지 않은 원소도 있는 것으로 본다
+    boolean isEmpty() {
+        return producerIndex.get() == consumerIndex;
+    }
+
+    // 꺼내는 스레드 하나에서만 호출한다. 칸을 배정받았지만 아직 쓰지 않은 원소는 다음 호출에서 꺼낸다
+    E poll() {
+        long index = consumerIndex;
+        int offset = (int) (index & mask);
+
+        E element = buffer.get(offset);
+        if (element == null) {
+            return null;
+        }
+
+        buffer.lazySet(offset, null);
+        consumerIndex = index + 1;
+        return element;
+    }
+}
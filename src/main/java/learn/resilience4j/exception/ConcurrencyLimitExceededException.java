@@ -0,0 +1,13 @@
+package learn.resilience4j.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 빠르게 거절할 수 있도록 스택 트레이스를 만들지 않는다
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String name) {
+        super("Concurrency limit of '" + name + "' exceeded", null, false, false);
+    }
+}
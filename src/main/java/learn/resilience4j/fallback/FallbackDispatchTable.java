@@ -0,0 +1,95 @@
+package learn.resilience4j.fallback;
+
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+// 빈을 초기화할 때 resilience4j 애너테이션의 fallbackMethod를 찾아 FallbackDispatcher를 만들어 둔다
+// 이름이 맞는 fallback 메서드가 없거나 매개변수, 반환 타입이 맞지 않으면 처음 실패할 때가 아니라 시작할 때 실패한다
+// 한 메서드에 애너테이션마다 다른 fallbackMethod를 지정할 수 있으므로 메서드와 fallback 이름으로 찾는다
+// SpEL(#{...})로 지정한 fallbackMethod는 호출할 때마다 이름이 달라질 수 있으므로 resilience4j의 FallbackExecutor가 처리한다
+@Component
+public class FallbackDispatchTable implements BeanPostProcessor {
+
+    private final Map<Key, FallbackDispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    private record Key(Method method, String fallbackMethodName) {
+
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> targetClass = ClassUtils.getUserClass(bean);
+        ReflectionUtils.doWithMethods(targetClass, method -> fallbackMethodNames(method).forEach(name -> {
+            try {
+                dispatchers.put(new Key(method, name), new FallbackDispatcher(method, fallbackMethods(targetClass, method, name)));
+            } catch (IllegalAccessException | IllegalStateException e) {
+                throw new BeanCreationException(beanName, "Invalid fallback method '" + name + "' for " + method, e);
+            }
+        }));
+        return bean;
+    }
+
+    // 미리 만들어 두지 않았으면 null
+    public FallbackDispatcher dispatcher(Method method, String fallbackMethodName) {
+        return dispatchers.get(new Key(method, fallbackMethodName));
+    }
+
+    private static List<String> fallbackMethodNames(Method method) {
+        return Stream.of(attribute(method, CircuitBreaker.class), attribute(method, Retry.class), attribute(method, Bulkhead.class),
+                         attribute(method, RateLimiter.class), attribute(method, TimeLimiter.class))
+                     .filter(name -> name != null && !name.isEmpty() && !name.contains("#{"))
+                     .distinct()
+                     .toList();
+    }
+
+    private static String attribute(Method method, Class<? extends java.lang.annotation.Annotation> annotationType) {
+        var attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(method, annotationType, false, false);
+        return attributes == null ? null : attributes.getString("fallbackMethod");
+    }
+
+    // resilience4j의 FallbackMethod와 같은 규칙: 원래 메서드의 매개변수 + Throwable 하나, 반환 타입은 원래 메서드의 반환 타입에 대입할 수 있어야 한다
+    private static List<Method> fallbackMethods(Class<?> targetClass, Method method, String name) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        List<Method> fallbackMethods = new ArrayList<>();
+        List<Method> mismatches = new ArrayList<>();
+
+        ReflectionUtils.doWithMethods(targetClass, candidate -> {
+            if (!candidate.getName().equals(name)) {
+                return;
+            }
+            Class<?>[] candidateParameterTypes = candidate.getParameterTypes();
+            boolean matches = candidateParameterTypes.length == parameterTypes.length + 1
+                              && Arrays.equals(candidateParameterTypes, 0, parameterTypes.length, parameterTypes, 0, parameterTypes.length)
+                              && Throwable.class.isAssignableFrom(candidateParameterTypes[parameterTypes.length])
+                              && ClassUtils.isAssignable(method.getReturnType(), candidate.getReturnType());
+            if (!matches) {
+                mismatches.add(candidate);
+            } else if (fallbackMethods.stream().noneMatch(found -> found.getParameterTypes()[parameterTypes.length] == candidateParameterTypes[parameterTypes.length])) {
+                // 하위 클래스의 메서드를 먼저 만나므로 재정의한 메서드가 남는다
+                fallbackMethods.add(candidate);
+            }
+        });
+
+        if (fallbackMethods.isEmpty()) {
+            throw new IllegalStateException("No fallback method matches " + method + (mismatches.isEmpty() ? "" : ". Mismatched: " + mismatches));
+        }
+        return fallbackMethods;
+    }
+}
@@ -0,0 +1,55 @@
+package learn.resilience4j.fallback;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+// 메서드 하나의 fallback 메서드들. 예외 클래스마다 가장 가까운 상위 클래스를 받는 fallback을 고른다
+// 고른 결과는 ClassValue에 두므로 처음 보는 예외 클래스만 상위 클래스를 따라 올라간다
+public class FallbackDispatcher {
+
+    private static final MethodHandle NO_FALLBACK = MethodHandles.constant(Object.class, null);
+
+    private final Map<Class<?>, MethodHandle> handles;
+
+    private final ClassValue<MethodHandle> dispatchTable = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                MethodHandle handle = handles.get(current);
+                if (handle != null) {
+                    return handle;
+                }
+            }
+            return NO_FALLBACK;
+        }
+    };
+
+    // 원래 메서드의 매개변수 뒤에 예외 하나를 더 받는 메서드들
+    FallbackDispatcher(Method method, Iterable<Method> fallbackMethods) throws IllegalAccessException {
+        int parameterCount = method.getParameterCount();
+        this.handles = new HashMap<>();
+        for (Method fallbackMethod : fallbackMethods) {
+            fallbackMethod.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(fallbackMethod);
+            // (target, args..., exception) -> (Object target, Object[] args, Object exception)Object
+            handle = handle.asType(handle.type().generic()).asSpreader(1, Object[].class, parameterCount);
+            handles.put(fallbackMethod.getParameterTypes()[parameterCount], handle);
+        }
+    }
+
+    public boolean hasFallback(Throwable throwable) {
+        return dispatchTable.get(throwable.getClass()) != NO_FALLBACK;
+    }
+
+    // 맞는 fallback이 없으면 예외를 그대로 던진다
+    public Object dispatch(Object target, Object[] args, Throwable throwable) throws Throwable {
+        MethodHandle handle = dispatchTable.get(throwable.getClass());
+        if (handle == NO_FALLBACK) {
+            throw throwable;
+        }
+        return (Object) handle.invokeExact(target, args, (Object) throwable);
+    }
+}
@@ -0,0 +1,69 @@
+package learn.resilience4j.fallback;
+
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.spelresolver.SpelResolver;
+import io.github.resilience4j.spring6.fallback.FallbackDecorators;
+import io.github.resilience4j.spring6.fallback.FallbackExecutor;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.reactivestreams.Publisher;
+
+// resilience4j 애스펙트가 fallback을 찾을 때마다 리플렉션으로 찾고 호출하는 대신 FallbackDispatchTable이 만들어 둔 MethodHandle을 호출한다
+// 미리 만들어 두지 않은 메서드(SpEL fallbackMethod)는 resilience4j의 FallbackExecutor가 처리한다
+// fallbackMethod가 없는 애스펙트도 이 메서드를 호출하므로(빈 이름) 그 애스펙트의 이름으로 찾아야 다른 애스펙트의 fallback이 예외를 삼키지 않는다
+// Mono, Flux 같은 반응형 반환 타입은 FallbackDecorators가 연산자로 감싸야 하므로 resilience4j에 맡긴다
+public class PrecomputedFallbackExecutor extends FallbackExecutor {
+
+    private final FallbackDispatchTable dispatchTable;
+
+    public PrecomputedFallbackExecutor(SpelResolver spelResolver, FallbackDecorators fallbackDecorators, FallbackDispatchTable dispatchTable) {
+        super(spelResolver, fallbackDecorators);
+        this.dispatchTable = dispatchTable;
+    }
+
+    @Override
+    public Object execute(ProceedingJoinPoint proceedingJoinPoint, Method method, String fallbackMethodValue, CheckedSupplier<Object> primaryFunction) throws Throwable {
+
+        FallbackDispatcher dispatcher = fallbackMethodValue.isEmpty() ? null : dispatchTable.dispatcher(method, fallbackMethodValue);
+        if (dispatcher == null || Publisher.class.isAssignableFrom(method.getReturnType())) {
+            return super.execute(proceedingJoinPoint, method, fallbackMethodValue, primaryFunction);
+        }
+
+        Object target = proceedingJoinPoint.getTarget();
+        Object[] args = proceedingJoinPoint.getArgs();
+        Object result;
+        try {
+            result = primaryFunction.get();
+        } catch (Throwable e) {
+            return dispatcher.dispatch(target, args, e);
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            CompletableFuture<Object> recovered = new CompletableFuture<>();
+            stage.whenComplete((value, e) -> {
+                if (e == null) {
+                    recovered.complete(value);
+                    return;
+                }
+                Throwable cause = e instanceof CompletionException || e instanceof ExecutionException ? e.getCause() : e;
+                try {
+                    ((CompletionStage<?>) dispatcher.dispatch(target, args, cause)).whenComplete((fallbackValue, fallbackException) -> {
+                        if (fallbackException == null) {
+                            recovered.complete(fallbackValue);
+                        } else {
+                            recovered.completeExceptionally(fallbackException);
+                        }
+                    });
+                } catch (Throwable fallbackException) {
+                    recovered.completeExceptionally(fallbackException);
+                }
+            });
+            return recovered;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package learn.resilience4j.hedging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.hedging.HedgingProperties.InstanceProperties;
+
+// 첫 호출이 관측한 백분위 지연(p95) 안에 끝나지 않으면 한 번 더 호출해서 먼저 성공한 결과를 사용하고 나머지는 인터럽트로 취소한다
+// 추가 호출은 예산 안에서만 하고, 둘 다 실패하면 마지막 예외를 한 번만 던지므로 바깥의 서킷 브레이커에는 한 번만 기록된다
+// 첫 호출이 지연 안에 실패하면 추가 호출하지 않는다. 실패는 재시도가 다룬다
+// 실행기가 가득 차서 거절하면 첫 호출은 추가 호출 없이 호출 스레드에서 하고, 추가 호출은 하지 않는다
+public class Hedger {
+
+    private final InstanceProperties properties;
+
+    private final ExecutorService executor;
+
+    private final LatencyPercentile latencyPercentile;
+
+    private final Counter primaries;
+
+    private final Counter hedges;
+
+    private final Counter budgetExhausted;
+
+    private final Counter rejected;
+
+    private double tokens;
+
+    public Hedger(String name, InstanceProperties properties, ExecutorService executor, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.latencyPercentile = new LatencyPercentile(properties.getPercentile(), properties.getWindow());
+        this.tokens = properties.getMaxTokens();
+        this.primaries = counter(meterRegistry, name, "primary");
+        this.hedges = counter(meterRegistry, name, "hedge");
+        this.budgetExhausted = counter(meterRegistry, name, "budget_exhausted");
+        this.rejected = counter(meterRegistry, name, "rejected");
+    }
+
+    public Object execute(Call call) throws Throwable {
+
+        long start = System.nanoTime();
+        primaries.increment();
+        deposit();
+
+        CompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Object>> attempts = new ArrayList<>(2);
+        try {
+            try {
+                attempts.add(completionService.submit(() -> invoke(call)));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                return call.call();
+            }
+            int remaining = 1;
+
+            Future<Object> done = completionService.poll(getDelayNanos(), TimeUnit.NANOSECONDS);
+            if (done == null) {
+                if (tryWithdraw()) {
+                    try {
+                        attempts.add(completionService.submit(() -> invoke(call)));
+                        hedges.increment();
+                        remaining++;
+                    } catch (RejectedExecutionException e) {
+                        rejected.increment();
+                    }
+                } else {
+                    budgetExhausted.increment();
+                }
+            }
+
+            Throwable failure = null;
+            while (remaining-- > 0) {
+                if (done == null) {
+                    done = completionService.take();
+                }
+                try {
+                    Object result = done.get();
+                    latencyPercentile.record(System.nanoTime() - start);
+                    return result;
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                }
+                done = null;
+            }
+            throw failure;
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    public long getDelayNanos() {
+        long percentileNanos = latencyPercentile.getNanos();
+        if (percentileNanos < 0) {
+            return Long.MAX_VALUE; // 관측한 지연이 부족하면 추가 호출하지 않는다
+        }
+        return Math.max(percentileNanos, properties.getMinDelay().toNanos());
+    }
+
+    private synchronized void deposit() {
+        tokens = Math.min(properties.getMaxTokens(), tokens + properties.getMaxHedgeRatio());
+    }
+
+    private synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private static Object invoke(Call call) throws Exception {
+        try {
+            return call.call();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("hedging.calls").tag("name", name).tag("result", result).register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface Call {
+
+        Object call() throws Throwable;
+    }
+}
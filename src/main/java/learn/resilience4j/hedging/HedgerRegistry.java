@@ -0,0 +1,44 @@
+package learn.resilience4j.hedging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.hedging.HedgingProperties.InstanceProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+// hedging.instances에 설정이 없는 이름은 기본 설정으로 만든다. 모든 인스턴스가 하나의 실행기를 공유한다
+// 첫 호출도 실행기에서 하므로 실행기는 hedging.max-threads개로 제한하고, 넘치면 Hedger가 거절을 처리한다
+@Component
+public class HedgerRegistry implements DisposableBean {
+
+    private final HedgingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+
+    private final Map<String, Hedger> hedgers = new ConcurrentHashMap<>();
+
+    public HedgerRegistry(HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                                               new CustomizableThreadFactory("hedging-"));
+    }
+
+    public Hedger hedger(String name) {
+        return hedgers.computeIfAbsent(name, key -> new Hedger(key, properties.getInstances().getOrDefault(key, new InstanceProperties()),
+                                                               executor, meterRegistry));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package learn.resilience4j.hedging;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("hedging")
+@Getter
+@Setter
+public class HedgingProperties {
+
+    // 모든 인스턴스의 첫 호출과 추가 호출을 실행하는 스레드의 최대 수
+    private int maxThreads = 64;
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class InstanceProperties {
+
+        // 첫 호출이 이 백분위 지연 안에 끝나지 않으면 한 번 더 호출한다
+        private double percentile = 0.95;
+
+        // 백분위 지연이 이보다 짧으면 이 시간을 기다린다
+        private Duration minDelay = Duration.ofMillis(10);
+
+        // 백분위를 계산할 최근 성공 호출 수
+        private int window = 1_000;
+
+        // 호출마다 이 비율만큼 추가 호출 예산이 쌓인다. 0.1이면 추가 호출은 전체 호출의 10%를 넘지 않는다
+        private double maxHedgeRatio = 0.1;
+
+        // 쌓아둘 수 있는 최대 예산
+        private double maxTokens = 10;
+    }
+}
@@ -0,0 +1,43 @@
+package learn.resilience4j.hedging;
+
+import java.util.Arrays;
+
+// 최근 window개의 지연을 원형 버퍼에 기록하고 window / 10개를 기록할 때마다 백분위를 다시 계산한다
+// 버퍼가 1/10도 차지 않았으면 -1
+class LatencyPercentile {
+
+    private final double percentile;
+
+    private final long[] latencies;
+
+    private final int recalculateInterval;
+
+    private int count;
+
+    private int sinceRecalculation;
+
+    private volatile long value = -1;
+
+    LatencyPercentile(double percentile, int window) {
+        this.percentile = percentile;
+        this.latencies = new long[window];
+        this.recalculateInterval = Math.max(window / 10, 1);
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[count % latencies.length] = latencyNanos;
+        count++;
+
+        if (++sinceRecalculation >= recalculateInterval) {
+            sinceRecalculation = 0;
+
+            long[] sorted = Arrays.copyOf(latencies, Math.min(count, latencies.length));
+            Arrays.sort(sorted);
+            value = sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+        }
+    }
+
+    long getNanos() {
+        return value;
+    }
+}
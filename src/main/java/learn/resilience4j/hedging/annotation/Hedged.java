@@ -0,0 +1,17 @@
+package learn.resilience4j.hedging.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// @Retry, @CircuitBreaker보다 안쪽, @Bulkhead보다 바깥에서 적용된다
+// 추가 호출은 다른 스레드에서 실행되고 bulkhead 허용량도 각각 사용한다. 동기 메서드에만 사용한다
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Hedged {
+
+    String name();
+}
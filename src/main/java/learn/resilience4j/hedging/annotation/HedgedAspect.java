@@ -0,0 +1,29 @@
+package learn.resilience4j.hedging.annotation;
+
+import learn.resilience4j.hedging.HedgerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class HedgedAspect implements Ordered {
+
+    private final HedgerRegistry hedgerRegistry;
+
+    @Around("@annotation(hedged)")
+    public Object hedge(ProceedingJoinPoint joinPoint, Hedged hedged) throws Throwable {
+        return hedgerRegistry.hedger(hedged.name()).execute(joinPoint::proceed);
+    }
+
+    // @CircuitBreaker 애스펙트(Ordered.LOWEST_PRECEDENCE - 3)보다 안쪽, @Bulkhead 애스펙트(Ordered.LOWEST_PRECEDENCE - 1)보다 바깥
+    // 사용하지 않는 @RateLimiter 애스펙트와 같은 위치다
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 2;
+    }
+}
@@ -0,0 +1,40 @@
+package learn.resilience4j.latency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+// 재시도 안쪽에서 시도마다 기록한다. 서킷 브레이커나 bulkhead가 거절한 시도는 원격 서비스를 호출하지 않았으므로 기록하지 않는다
+@Aspect
+@Component
+@ConditionalOnProperty(value = "latency-histogram.enabled", havingValue = "true", matchIfMissing = true)
+public class AttemptLatencyAspect extends LatencyRecordingAspect implements Ordered {
+
+    public AttemptLatencyAspect(LatencyRecorderRegistry registry) {
+        super(registry);
+    }
+
+    @Around(POINTCUT)
+    public Object recordAttempt(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint);
+    }
+
+    @Override
+    boolean shouldRecord(Throwable e) {
+        return !isRejected(e);
+    }
+
+    @Override
+    void record(LatencyRecorder recorder, long latencyNanos) {
+        recorder.recordAttempt(latencyNanos);
+    }
+
+    // 가장 안쪽. @Bulkhead 애스펙트는 resilience4j.bulkhead.bulkhead-aspect-order로 Ordered.LOWEST_PRECEDENCE - 1에 둔다
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,40 @@
+package learn.resilience4j.latency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+// 재시도 대기, 캐시, 합치기를 포함해 호출한 쪽이 기다린 시간을 기록한다. 거절된 호출도 기록한다
+@Aspect
+@Component
+@ConditionalOnProperty(value = "latency-histogram.enabled", havingValue = "true", matchIfMissing = true)
+public class CallLatencyAspect extends LatencyRecordingAspect implements Ordered {
+
+    public CallLatencyAspect(LatencyRecorderRegistry registry) {
+        super(registry);
+    }
+
+    @Around(POINTCUT)
+    public Object recordCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint);
+    }
+
+    @Override
+    boolean shouldRecord(Throwable e) {
+        return true;
+    }
+
+    @Override
+    void record(LatencyRecorder recorder, long latencyNanos) {
+        recorder.recordCall(latencyNanos);
+    }
+
+    // @CachedResponse 애스펙트(Ordered.LOWEST_PRECEDENCE - 7)보다 바깥
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 8;
+    }
+}
@@ -0,0 +1,51 @@
+package learn.resilience4j.latency;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/latencies
+// 지난 latency-histogram.interval 동안의 분포. 단위는 밀리초
+@Component
+@Endpoint(id = "latencies")
+public class LatencyHistogramEndpoint {
+
+    private final LatencyRecorderRegistry registry;
+
+    public LatencyHistogramEndpoint(LatencyRecorderRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, LatencyDetails> latencies() {
+
+        Map<String, LatencyDetails> latencies = new TreeMap<>();
+        registry.getAllRecorders().forEach(recorder -> latencies.put(recorder.getName(), new LatencyDetails(Distribution.of(recorder.getAttemptInterval()),
+                                                                                                           Distribution.of(recorder.getCallInterval()))));
+
+        return latencies;
+    }
+
+    public record LatencyDetails(Distribution attempt, Distribution call) {
+
+    }
+
+    public record Distribution(long count, double p50, double p90, double p99, double p999, double max) {
+
+        static Distribution of(Histogram histogram) {
+            return new Distribution(histogram.getTotalCount(),
+                                    millis(histogram.getValueAtPercentile(50)),
+                                    millis(histogram.getValueAtPercentile(90)),
+                                    millis(histogram.getValueAtPercentile(99)),
+                                    millis(histogram.getValueAtPercentile(99.9)),
+                                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package learn.resilience4j.latency;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("latency-histogram")
+@Getter
+@Setter
+public class LatencyHistogramProperties {
+
+    // false이면 지연 기록 애스펙트(CallLatencyAspect, AttemptLatencyAspect)를 등록하지 않는다
+    private boolean enabled = true;
+
+    // 이 주기마다 기록 중인 히스토그램을 바꿔 끼우고, 지난 구간의 분포를 엔드포인트와 게이지로 보여준다
+    private Duration interval = Duration.ofSeconds(10);
+
+    // 이보다 긴 지연은 이 값으로 기록한다
+    private Duration highestTrackableLatency = Duration.ofMinutes(1);
+
+    // 유효 숫자 자릿수. 3이면 오차가 0.1% 이내
+    private int significantDigits = 3;
+}
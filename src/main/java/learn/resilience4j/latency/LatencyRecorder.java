@@ -0,0 +1,74 @@
+package learn.resilience4j.latency;
+
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+// 인스턴스 하나의 지연 분포. 마이크로초 단위로 기록한다
+// - attempt: 재시도 안쪽의 시도 하나
+// - call: 재시도 대기를 포함한 호출 전체
+// 기록은 Recorder(잠금 없음, 범위가 고정된 히스토그램이라 할당 없음)에 하고, rotate()가 지난 구간의 히스토그램으로 바꿔 끼운다
+public class LatencyRecorder {
+
+    private final String name;
+
+    private final long highestTrackableValue;
+
+    private final Recorder attempts;
+
+    private final Recorder calls;
+
+    private volatile Histogram attemptInterval;
+
+    private volatile Histogram callInterval;
+
+    private Histogram recycledAttemptInterval;
+
+    private Histogram recycledCallInterval;
+
+    public LatencyRecorder(String name, LatencyHistogramProperties properties) {
+        this.name = name;
+        this.highestTrackableValue = properties.getHighestTrackableLatency().toNanos() / 1_000;
+        this.attempts = new Recorder(1, highestTrackableValue, properties.getSignificantDigits());
+        this.calls = new Recorder(1, highestTrackableValue, properties.getSignificantDigits());
+        this.attemptInterval = attempts.getIntervalHistogram();
+        this.callInterval = calls.getIntervalHistogram();
+    }
+
+    public void recordAttempt(long latencyNanos) {
+        attempts.recordValue(toMicros(latencyNanos));
+    }
+
+    public void recordCall(long latencyNanos) {
+        calls.recordValue(toMicros(latencyNanos));
+    }
+
+    // 한 스레드(LatencyRecorderRegistry의 스케줄러)에서만 호출한다
+    // 읽는 쪽이 아직 보고 있을 수 있으므로 바로 전 구간이 아니라 그 전 구간의 히스토그램을 재사용한다
+    void rotate() {
+        Histogram attempt = attempts.getIntervalHistogram(recycledAttemptInterval);
+        recycledAttemptInterval = attemptInterval;
+        attemptInterval = attempt;
+
+        Histogram call = calls.getIntervalHistogram(recycledCallInterval);
+        recycledCallInterval = callInterval;
+        callInterval = call;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // 지난 구간의 분포
+    public Histogram getAttemptInterval() {
+        return attemptInterval;
+    }
+
+    public Histogram getCallInterval() {
+        return callInterval;
+    }
+
+    private long toMicros(long latencyNanos) {
+        return Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), highestTrackableValue));
+    }
+}
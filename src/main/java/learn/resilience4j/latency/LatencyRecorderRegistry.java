@@ -0,0 +1,73 @@
+package learn.resilience4j.latency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+// 지난 구간의 백분위를 게이지로 등록한다
+// resilience4j.latency{name=serverA, kind=attempt|call, quantile=0.5|0.9|0.99|0.999}
+@Component
+public class LatencyRecorderRegistry implements DisposableBean {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final LatencyHistogramProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("latency-histogram-"));
+
+    public LatencyRecorderRegistry(LatencyHistogramProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        long interval = properties.getInterval().toNanos();
+        scheduler.scheduleAtFixedRate(() -> recorders.values().forEach(LatencyRecorder::rotate), interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public LatencyRecorder recorder(String name) {
+        return recorders.computeIfAbsent(name, this::create);
+    }
+
+    public Collection<LatencyRecorder> getAllRecorders() {
+        return recorders.values();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private LatencyRecorder create(String name) {
+
+        LatencyRecorder recorder = new LatencyRecorder(name, properties);
+
+        for (double quantile : QUANTILES) {
+            register(recorder, "attempt", quantile, LatencyRecorder::getAttemptInterval);
+            register(recorder, "call", quantile, LatencyRecorder::getCallInterval);
+        }
+
+        return recorder;
+    }
+
+    private void register(LatencyRecorder recorder, String kind, double quantile, Function<LatencyRecorder, Histogram> interval) {
+        Gauge.builder("resilience4j.latency", recorder, r -> interval.apply(r).getValueAtPercentile(quantile * 100) / 1_000_000.0)
+             .tag("name", recorder.getName())
+             .tag("kind", kind)
+             .tag("quantile", String.valueOf(quantile))
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+}
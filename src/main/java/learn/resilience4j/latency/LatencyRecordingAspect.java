@@ -0,0 +1,71 @@
+package learn.resilience4j.latency;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+
+// @CircuitBreaker나 @Retry가 붙은 메서드의 지연을 그 인스턴스 이름으로 기록한다
+// CompletionStage를 반환하면 완료될 때 기록한다
+abstract class LatencyRecordingAspect {
+
+    static final String POINTCUT = "@annotation(io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker)"
+                                   + " || @annotation(io.github.resilience4j.retry.annotation.Retry)";
+
+    private final LatencyRecorderRegistry registry;
+
+    private final Map<Method, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    LatencyRecordingAspect(LatencyRecorderRegistry registry) {
+        this.registry = registry;
+    }
+
+    Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        LatencyRecorder recorder = recorders.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::recorder);
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            if (shouldRecord(e)) {
+                record(recorder, System.nanoTime() - start);
+            }
+            throw e;
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            return stage.whenComplete((value, e) -> {
+                if (e == null || shouldRecord(e)) {
+                    record(recorder, System.nanoTime() - start);
+                }
+            });
+        }
+
+        record(recorder, System.nanoTime() - start);
+        return result;
+    }
+
+    abstract boolean shouldRecord(Throwable e);
+
+    abstract void record(LatencyRecorder recorder, long latencyNanos);
+
+    // @CircuitBreaker와 @Retry가 함께 붙어 있으면 서킷 브레이커 이름을 사용한다
+    private LatencyRecorder recorder(Method method) {
+        CircuitBreaker circuitBreaker = method.getAnnotation(CircuitBreaker.class);
+        return registry.recorder(circuitBreaker != null ? circuitBreaker.name() : method.getAnnotation(Retry.class).name());
+    }
+
+    static boolean isRejected(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException;
+    }
+}
@@ -0,0 +1,42 @@
+package learn.resilience4j.lazy;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.internal.InMemoryCircuitBreakerRegistry;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import java.util.Map;
+import java.util.Set;
+
+// resilience4j.circuitbreaker.instances의 인스턴스를 시작할 때 만들지 않고 처음 찾을 때 만든다
+// 인스턴스 설정은 시작할 때 CircuitBreakerConfig로 만들어 인스턴스 이름의 설정으로 등록해 둔다
+// 이름만 주고 찾으면 default 설정 대신 그 설정으로 만든다
+public class LazyCircuitBreakerRegistry extends InMemoryCircuitBreakerRegistry {
+
+    private final Set<String> instanceNames;
+
+    public LazyCircuitBreakerRegistry(Map<String, CircuitBreakerConfig> configs, Map<String, CircuitBreakerConfig> instanceConfigs,
+                                      RegistryEventConsumer<CircuitBreaker> registryEventConsumer, Map<String, String> tags) {
+        super(configs, registryEventConsumer, tags);
+        instanceConfigs.forEach(this::addConfiguration);
+        this.instanceNames = Set.copyOf(instanceConfigs.keySet());
+    }
+
+    @Override
+    public CircuitBreaker circuitBreaker(String name) {
+        return circuitBreaker(name, getConfiguration(name).orElseGet(this::getDefaultConfig));
+    }
+
+    @Override
+    public CircuitBreaker circuitBreaker(String name, Map<String, String> tags) {
+        return circuitBreaker(name, getConfiguration(name).orElseGet(this::getDefaultConfig), tags);
+    }
+
+    // 설정한 인스턴스 이름. 아직 만들지 않은 인스턴스도 포함한다
+    public Set<String> getInstanceNames() {
+        return instanceNames;
+    }
+
+    public boolean isMaterialized(String name) {
+        return find(name).isPresent();
+    }
+}
@@ -0,0 +1,91 @@
+package learn.resilience4j.lazy;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.circuitbreaker.monitoring.endpoint.CircuitBreakerEndpoint;
+import io.github.resilience4j.common.CompositeCustomizer;
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.consumer.EventConsumerRegistry;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.retry.event.RetryEvent;
+import io.github.resilience4j.retry.monitoring.endpoint.RetryEndpoint;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerProperties;
+import io.github.resilience4j.springboot3.retry.autoconfigure.RetryProperties;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// lazy-instances.enabled=true이면 resilience4j 자동 설정 대신 인스턴스를 처음 사용할 때 만드는 레지스트리를 등록한다
+// 설정(configs, instances)을 CircuitBreakerConfig, RetryConfig로 만드는 것과 이벤트 소비자 등록은 자동 설정과 같다
+@Configuration
+@ConditionalOnProperty(value = "lazy-instances.enabled", havingValue = "true")
+public class LazyInstancesConfiguration {
+
+    private static final int DEFAULT_EVENT_CONSUMER_BUFFER_SIZE = 100;
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(CircuitBreakerProperties properties,
+                                                         EventConsumerRegistry<CircuitBreakerEvent> eventConsumerRegistry,
+                                                         RegistryEventConsumer<CircuitBreaker> registryEventConsumer,
+                                                         @Qualifier("compositeCircuitBreakerCustomizer") CompositeCustomizer<CircuitBreakerConfigCustomizer> customizer) {
+
+        Map<String, CircuitBreakerConfig> configs = new HashMap<>();
+        properties.getConfigs().forEach((name, instance) -> configs.put(name, properties.createCircuitBreakerConfig(name, instance, customizer)));
+        Map<String, CircuitBreakerConfig> instanceConfigs = new HashMap<>();
+        properties.getInstances().forEach((name, instance) -> instanceConfigs.put(name, properties.createCircuitBreakerConfig(name, instance, customizer)));
+
+        LazyCircuitBreakerRegistry registry = new LazyCircuitBreakerRegistry(configs, instanceConfigs, registryEventConsumer, Map.copyOf(properties.getTags()));
+        registry.getEventPublisher().onEntryAdded(event -> {
+            CircuitBreaker circuitBreaker = event.getAddedEntry();
+            var instance = properties.getInstances().get(circuitBreaker.getName());
+            Integer bufferSize = instance == null ? null : instance.getEventConsumerBufferSize();
+            circuitBreaker.getEventPublisher()
+                          .onEvent(eventConsumerRegistry.createEventConsumer(circuitBreaker.getName(), bufferSize == null ? DEFAULT_EVENT_CONSUMER_BUFFER_SIZE : bufferSize));
+        });
+        return registry;
+    }
+
+    @Bean
+    public RetryRegistry retryRegistry(RetryProperties properties,
+                                       EventConsumerRegistry<RetryEvent> eventConsumerRegistry,
+                                       RegistryEventConsumer<Retry> registryEventConsumer,
+                                       @Qualifier("compositeRetryCustomizer") CompositeCustomizer<RetryConfigCustomizer> customizer) {
+
+        Map<String, RetryConfig> configs = new HashMap<>();
+        properties.getConfigs().forEach((name, instance) -> configs.put(name, properties.createRetryConfig(instance, customizer, name)));
+        Map<String, RetryConfig> instanceConfigs = new HashMap<>();
+        properties.getInstances().forEach((name, instance) -> instanceConfigs.put(name, properties.createRetryConfig(instance, customizer, name)));
+
+        LazyRetryRegistry registry = new LazyRetryRegistry(configs, instanceConfigs, registryEventConsumer, Map.copyOf(properties.getTags()));
+        registry.getEventPublisher().onEntryAdded(event -> {
+            Retry retry = event.getAddedEntry();
+            var instance = properties.getInstances().get(retry.getName());
+            Integer bufferSize = instance == null ? null : instance.getEventConsumerBufferSize();
+            retry.getEventPublisher()
+                 .onEvent(eventConsumerRegistry.createEventConsumer(retry.getName(), bufferSize == null ? DEFAULT_EVENT_CONSUMER_BUFFER_SIZE : bufferSize));
+        });
+        return registry;
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = CircuitBreakerEndpoint.class)
+    public LazyInstancesEndpointExtensions.CircuitBreakers lazyCircuitBreakersEndpointExtension(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new LazyInstancesEndpointExtensions.CircuitBreakers((LazyCircuitBreakerRegistry) circuitBreakerRegistry);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = RetryEndpoint.class)
+    public LazyInstancesEndpointExtensions.Retries lazyRetriesEndpointExtension(RetryRegistry retryRegistry) {
+        return new LazyInstancesEndpointExtensions.Retries((LazyRetryRegistry) retryRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package learn.resilience4j.lazy;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.monitoring.endpoint.CircuitBreakerEndpoint;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.monitoring.endpoint.RetryEndpoint;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.EndpointWebExtension;
+
+// /actuator/circuitbreakers, /actuator/retries에 아직 만들지 않은 인스턴스도 보여 준다
+// 만들지 않은 인스턴스는 materialized: false이고, 목록을 읽어도 인스턴스를 만들지 않는다
+public final class LazyInstancesEndpointExtensions {
+
+    private LazyInstancesEndpointExtensions() {
+    }
+
+    @EndpointWebExtension(endpoint = CircuitBreakerEndpoint.class)
+    public static class CircuitBreakers {
+
+        private final LazyCircuitBreakerRegistry registry;
+
+        CircuitBreakers(LazyCircuitBreakerRegistry registry) {
+            this.registry = registry;
+        }
+
+        @ReadOperation
+        public Map<String, Object> getAllCircuitBreakers() {
+            Map<String, Object> circuitBreakers = new TreeMap<>();
+            registry.getInstanceNames().forEach(name -> circuitBreakers.put(name, Map.of("materialized", false)));
+            registry.getAllCircuitBreakers().forEach(circuitBreaker -> circuitBreakers.put(circuitBreaker.getName(), details(circuitBreaker)));
+            return Map.of("circuitBreakers", circuitBreakers);
+        }
+
+        private static Map<String, Object> details(CircuitBreaker circuitBreaker) {
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("materialized", true);
+            details.put("state", circuitBreaker.getState());
+            details.put("failureRate", metrics.getFailureRate() + "%");
+            details.put("slowCallRate", metrics.getSlowCallRate() + "%");
+            details.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+            details.put("failedCalls", metrics.getNumberOfFailedCalls());
+            details.put("slowCalls", metrics.getNumberOfSlowCalls());
+            details.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+            return details;
+        }
+    }
+
+    @EndpointWebExtension(endpoint = RetryEndpoint.class)
+    public static class Retries {
+
+        private final LazyRetryRegistry registry;
+
+        Retries(LazyRetryRegistry registry) {
+            this.registry = registry;
+        }
+
+        @ReadOperation
+        public Map<String, Object> getAllRetries() {
+            TreeSet<String> names = new TreeSet<>(registry.getInstanceNames());
+            List<String> materialized = registry.getAllRetries().stream().map(Retry::getName).sorted().toList();
+            names.addAll(materialized);
+            return Map.of("retries", names, "materialized", materialized);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package learn.resilience4j.lazy;
+
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.internal.InMemoryRetryRegistry;
+import java.util.Map;
+import java.util.Set;
+
+// resilience4j.retry.instances의 인스턴스를 처음 찾을 때 만든다. LazyCircuitBreakerRegistry와 같다
+public class LazyRetryRegistry extends InMemoryRetryRegistry {
+
+    private final Set<String> instanceNames;
+
+    public LazyRetryRegistry(Map<String, RetryConfig> configs, Map<String, RetryConfig> instanceConfigs,
+                             RegistryEventConsumer<Retry> registryEventConsumer, Map<String, String> tags) {
+        super(configs, registryEventConsumer, tags);
+        instanceConfigs.forEach(this::addConfiguration);
+        this.instanceNames = Set.copyOf(instanceConfigs.keySet());
+    }
+
+    @Override
+    public Retry retry(String name) {
+        return retry(name, getConfiguration(name).orElseGet(this::getDefaultConfig));
+    }
+
+    @Override
+    public Retry retry(String name, Map<String, String> tags) {
+        return retry(name, getConfiguration(name).orElseGet(this::getDefaultConfig), tags);
+    }
+
+    public Set<String> getInstanceNames() {
+        return instanceNames;
+    }
+
+    public boolean isMaterialized(String name) {
+        return find(name).isPresent();
+    }
+}
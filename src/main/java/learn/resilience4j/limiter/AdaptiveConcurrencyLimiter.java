@@ -0,0 +1,130 @@
+package learn.resilience4j.limiter;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import learn.resilience4j.limiter.AdaptiveConcurrencyLimiterProperties.InstanceProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+
+// 관측한 RTT로 동시 호출 한도를 조절한다 (Gradient 방식)
+// 부하가 없을 때의 최소 RTT에 비해 RTT가 늘어나면 원격 서비스에 대기열이 생긴 것으로 보고 그 비율만큼 한도를 줄이고,
+// RTT가 허용 범위 안이면 sqrt(한도)만큼 늘린다. 타임아웃이나 원격 서비스의 거절(과부하)이면 곱셈으로 줄인다
+// 원격 서비스가 실제로 느려지는 변화(배포, 경로 변경)를 따라가도록 최소 RTT는 min-rtt-probe-interval마다 그 구간의 최솟값으로 다시 잰다
+// 한도에 도달하면 기다리지 않고 바로 거절한다
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+
+    private final InstanceProperties properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private final LongSupplier nanoClock;
+
+    private long minRttNanos = Long.MAX_VALUE;
+
+    private long probeMinRttNanos = Long.MAX_VALUE;
+
+    private long nextProbeNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, InstanceProperties properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, InstanceProperties properties, LongSupplier nanoClock) {
+        this.name = name;
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+        this.nanoClock = nanoClock;
+        this.nextProbeNanos = nanoClock.getAsLong() + properties.getMinRttProbeInterval().toNanos();
+    }
+
+    // 한도를 줄일 실패. 그 밖의 실패는 빨리 끝난 호출일 수 있으므로 RTT로도 쓰지 않는다
+    public static boolean isDropped(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+            if (cause instanceof HttpStatusCodeException statusCodeException
+                && (statusCodeException.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                    || statusCodeException.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rtt, TimeUnit unit) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        sample(Math.max(unit.toNanos(rtt), 1), inFlightAtCompletion);
+    }
+
+    // 원격 서비스 과부하로 볼 수 있는 실패(isDropped)
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            limit = Math.max(properties.getMinLimit(), limit * BACKOFF_RATIO);
+        }
+    }
+
+    // 서킷 브레이커가 거절한 호출처럼 원격 서비스에 닿지 않았거나, 과부하와 상관없이 실패한 호출. 한도는 그대로 둔다
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtCompletion) {
+
+        // 구간이 끝나면 그 구간의 최솟값을 새 기준으로 삼는다
+        // 부하 중이면 대기열이 포함된 값이 기준이 되어 한도가 늘어나므로, 구간을 짧게 잡으면 한도가 계속 늘어난다
+        probeMinRttNanos = Math.min(probeMinRttNanos, rttNanos);
+        long now = nanoClock.getAsLong();
+        if (now - nextProbeNanos >= 0) {
+            minRttNanos = probeMinRttNanos;
+            probeMinRttNanos = Long.MAX_VALUE;
+            nextProbeNanos = now + properties.getMinRttProbeInterval().toNanos();
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+
+        // 한도의 절반도 쓰지 않고 있으면 한도가 부족한지 알 수 없으므로 늘리지 않는다
+        if (inFlightAtCompletion * 2 < limit) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * minRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+
+        newLimit = limit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+        limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,32 @@
+package learn.resilience4j.limiter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/concurrencylimiters
+@Component
+@Endpoint(id = "concurrencylimiters")
+public class AdaptiveConcurrencyLimiterEndpoint {
+
+    private final AdaptiveConcurrencyLimiterRegistry registry;
+
+    public AdaptiveConcurrencyLimiterEndpoint(AdaptiveConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, LimiterDetails> limiters() {
+
+        Map<String, LimiterDetails> limiters = new TreeMap<>();
+        registry.getAllLimiters().forEach(limiter -> limiters.put(limiter.getName(), new LimiterDetails(limiter.getLimit(), limiter.getInFlight())));
+
+        return limiters;
+    }
+
+    public record LimiterDetails(int limit, int inFlight) {
+
+    }
+}
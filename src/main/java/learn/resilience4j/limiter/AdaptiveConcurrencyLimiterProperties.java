@@ -0,0 +1,36 @@
+package learn.resilience4j.limiter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("adaptive-concurrency-limiter")
+@Getter
+@Setter
+public class AdaptiveConcurrencyLimiterProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class InstanceProperties {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 1;
+
+        private int maxLimit = 200;
+
+        // 최소 RTT의 몇 배까지를 대기열 없이 처리되는 것으로 볼지
+        private double rttTolerance = 1.5;
+
+        // 새 한도를 얼마나 반영할지 (0 ~ 1)
+        private double smoothing = 0.2;
+
+        // 이 간격마다 최소 RTT를 다시 잰다
+        private Duration minRttProbeInterval = Duration.ofSeconds(30);
+    }
+}
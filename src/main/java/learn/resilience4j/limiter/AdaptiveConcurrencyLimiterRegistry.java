@@ -0,0 +1,45 @@
+package learn.resilience4j.limiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import learn.resilience4j.limiter.AdaptiveConcurrencyLimiterProperties.InstanceProperties;
+import org.springframework.stereotype.Component;
+
+// adaptive-concurrency-limiter.instances에 설정이 없는 이름은 기본 설정으로 만든다
+@Component
+public class AdaptiveConcurrencyLimiterRegistry {
+
+    private final AdaptiveConcurrencyLimiterProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiterRegistry(AdaptiveConcurrencyLimiterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        properties.getInstances().keySet().forEach(this::limiter);
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, this::create);
+    }
+
+    public Collection<AdaptiveConcurrencyLimiter> getAllLimiters() {
+        return limiters.values();
+    }
+
+    private AdaptiveConcurrencyLimiter create(String name) {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name, properties.getInstances().getOrDefault(name, new InstanceProperties()));
+
+        Gauge.builder("concurrency.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tag("name", name).register(meterRegistry);
+        Gauge.builder("concurrency.limiter.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).tag("name", name).register(meterRegistry);
+
+        return limiter;
+    }
+}
@@ -0,0 +1,47 @@
+package learn.resilience4j.limiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// 서킷 브레이커보다 앞에서 클라이언트마다 요청 수를 제한한다
+// 토큰이 없으면 예외를 던지지 않고 429와 Retry-After(초)를 바로 응답한다
+// 키 헤더는 발급한 API 키(client-rate-limiter.api-keys)일 때만 믿는다. 그 밖에는 원격 주소로 구분한다
+public class ClientRateLimitFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final String keyHeader;
+
+    private final Set<String> apiKeys;
+
+    public ClientRateLimitFilter(ClientRateLimiter rateLimiter, String keyHeader, Set<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.keyHeader = keyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(request.getRequestURI().substring(request.getContextPath().length()), clientKey(request));
+        if (waitNanos > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // API 키와 원격 주소가 같은 값이어도 섞이지 않도록 접두사를 붙인다
+    String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(keyHeader);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "addr:" + request.getRemoteAddr();
+    }
+}
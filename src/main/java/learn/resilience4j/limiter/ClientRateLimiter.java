@@ -0,0 +1,83 @@
+package learn.resilience4j.limiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import learn.resilience4j.limiter.ClientRateLimiterProperties.Rule;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+// 경로 규칙마다 클라이언트 키별 TokenBucket을 둔다
+// 버킷은 규칙마다 크기와 유휴 시간을 제한한 Caffeine 캐시에 두므로 클라이언트 키가 많아져도 메모리가 끝없이 늘지 않는다
+// 거절된 요청 수는 client.rate.limiter.rejected{rule} 지표로 노출한다
+public class ClientRateLimiter {
+
+    private final List<RuleLimiter> rules = new ArrayList<>();
+
+    private final Ticker ticker;
+
+    public ClientRateLimiter(ClientRateLimiterProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    ClientRateLimiter(ClientRateLimiterProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        properties.getRules().forEach((name, rule) -> rules.add(new RuleLimiter(name, rule, properties, meterRegistry, ticker)));
+    }
+
+    // 맞는 규칙이 없거나 토큰이 있으면 0, 토큰이 없으면 다음 토큰이 생길 때까지 남은 시간(ns)
+    public long tryAcquire(String path, String clientKey) {
+        RuleLimiter rule = match(path);
+        return rule == null ? 0 : rule.tryAcquire(clientKey, ticker.read());
+    }
+
+    private RuleLimiter match(String path) {
+        PathContainer pathContainer = null;
+        for (RuleLimiter rule : rules) {
+            if (pathContainer == null) {
+                pathContainer = PathContainer.parsePath(path);
+            }
+            if (rule.pattern.matches(pathContainer)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static class RuleLimiter {
+
+        private final PathPattern pattern;
+
+        private final Cache<String, TokenBucket> buckets;
+
+        private final Function<String, TokenBucket> bucketFactory;
+
+        private final Counter rejected;
+
+        RuleLimiter(String name, Rule rule, ClientRateLimiterProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+            this.pattern = PathPatternParser.defaultInstance.parse(rule.getPath());
+            this.buckets = Caffeine.newBuilder()
+                                   .maximumSize(properties.getMaxKeys())
+                                   .expireAfterAccess(properties.getExpireAfterAccess())
+                                   .ticker(ticker)
+                                   .executor(Runnable::run)
+                                   .build();
+            this.bucketFactory = key -> new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond(), ticker.read());
+            this.rejected = Counter.builder("client.rate.limiter.rejected").tag("rule", name).register(meterRegistry);
+        }
+
+        long tryAcquire(String clientKey, long nowNanos) {
+            long waitNanos = buckets.get(clientKey, bucketFactory).tryAcquire(nowNanos);
+            if (waitNanos > 0) {
+                rejected.increment();
+            }
+            return waitNanos;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package learn.resilience4j.limiter;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("client-rate-limiter")
+@Getter
+@Setter
+public class ClientRateLimiterProperties {
+
+    private boolean enabled = false;
+
+    // 이 헤더 값이 api-keys에 있으면 헤더 값, 아니면 원격 주소로 클라이언트를 구분한다
+    private String keyHeader = "X-API-Key";
+
+    // 발급한 API 키. 검증하지 않은 헤더 값을 믿으면 클라이언트가 요청마다 키를 바꿔 새 버킷을 받을 수 있다
+    private Set<String> apiKeys = new HashSet<>();
+
+    // 규칙마다 기억하는 클라이언트 수. 넘으면 W-TinyLFU 정책으로 제거된다
+    private long maxKeys = 100_000;
+
+    // 마지막 요청 이후 이 시간이 지나면 제거된다. 제거된 클라이언트는 버킷이 가득 찬 상태로 다시 시작한다
+    private Duration expireAfterAccess = Duration.ofMinutes(10);
+
+    // 규칙 이름 -> 규칙. 적은 순서대로 처음 맞는 규칙 하나만 적용한다
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        // PathPattern. 예: /serverA/**
+        private String path;
+
+        // 한 번에 보낼 수 있는 요청 수(버킷 크기)
+        private int capacity = 100;
+
+        // 초당 채워지는 토큰 수
+        private double refillPerSecond = 50;
+    }
+}
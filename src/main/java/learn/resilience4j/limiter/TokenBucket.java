@@ -0,0 +1,37 @@
+package learn.resilience4j.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 잠금 없는 토큰 버킷. 토큰 수 대신 버킷이 다시 가득 차는 시각 하나를 AtomicLong에 두고 CAS로 바꾼다 (GCRA)
+// - 토큰 하나는 emissionInterval(1 / 초당 토큰 수)만큼의 시간이다
+// - fullAt - now가 빈 토큰 수 × emissionInterval이고, 이 값이 capacity × emissionInterval을 넘으면 토큰이 없다
+// 거절할 때는 상태를 바꾸지 않는다
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.capacityNanos = emissionIntervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    // 토큰을 하나 가져가면 0, 토큰이 없으면 다음 토큰이 생길 때까지 남은 시간(ns)
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long debt = next - nowNanos;
+            if (debt > capacityNanos) {
+                return debt - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
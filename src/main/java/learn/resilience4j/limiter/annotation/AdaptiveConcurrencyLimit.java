@@ -0,0 +1,17 @@
+package learn.resilience4j.limiter.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// @Retry보다 안쪽, @CircuitBreaker보다 바깥에서 시도마다 적용된다. 한도에 도달하면 바로 거절하고, 거절은 재시도하지 않는다
+// 동기 메서드에만 사용한다
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdaptiveConcurrencyLimit {
+
+    String name();
+}
@@ -0,0 +1,59 @@
+package learn.resilience4j.limiter.annotation;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import java.util.concurrent.TimeUnit;
+import learn.resilience4j.exception.BusinessException;
+import learn.resilience4j.exception.ConcurrencyLimitExceededException;
+import learn.resilience4j.limiter.AdaptiveConcurrencyLimiter;
+import learn.resilience4j.limiter.AdaptiveConcurrencyLimiterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimitAspect implements Ordered {
+
+    private final AdaptiveConcurrencyLimiterRegistry registry;
+
+    @Around("@annotation(adaptiveConcurrencyLimit)")
+    public Object limit(ProceedingJoinPoint joinPoint, AdaptiveConcurrencyLimit adaptiveConcurrencyLimit) throws Throwable {
+
+        AdaptiveConcurrencyLimiter limiter = registry.limiter(adaptiveConcurrencyLimit.name());
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(adaptiveConcurrencyLimit.name());
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            limiter.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            limiter.onIgnored();
+            throw e;
+        } catch (BusinessException e) {
+            limiter.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } catch (Throwable e) {
+            if (AdaptiveConcurrencyLimiter.isDropped(e)) {
+                limiter.onDropped();
+            } else {
+                limiter.onIgnored();
+            }
+            throw e;
+        }
+    }
+
+    // @Retry 애스펙트(resilience4j.retry.retry-aspect-order, Ordered.LOWEST_PRECEDENCE - 5)보다 안쪽, @CircuitBreaker 애스펙트(Ordered.LOWEST_PRECEDENCE - 3)보다 바깥
+    // 시도마다 허가를 받고 RTT를 재므로 재시도 대기가 RTT에 섞이지 않는다
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 4;
+    }
+}
@@ -0,0 +1,77 @@
+package learn.resilience4j.retry;
+
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.RetryConfig;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import learn.resilience4j.retry.RetryBackoffProperties.InstanceProperties;
+import learn.resilience4j.retry.RetryBackoffProperties.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+
+// 재시도 대기 시간
+// 고정 대기는 장애가 끝날 때 모든 노드가 같은 순간에 다시 호출하므로, 노드마다 대기 시간이 흩어지도록 decorrelated jitter를 사용한다
+// IntervalBiFunction은 직전 대기 시간을 알 수 없으므로 직전 대기 대신 직전 구간의 상한(initial-wait x 3^(n-1))을 기준으로 한다
+public final class RetryBackoff {
+
+    private RetryBackoff() {
+    }
+
+    // 상속한 대기 시간 함수가 음수를 반환하면(재시도 예산이 없으면) 재시도하지 않도록 그대로 반환한다
+    public static <T> void decorate(RetryConfig.Builder<T> builder, InstanceProperties properties) {
+        IntervalBiFunction<T> inherited = builder.build().getIntervalBiFunction();
+        IntervalBiFunction<T> jitter = properties.getType() == Type.FIXED ? null : decorrelatedJitter(properties.getInitialWait(), properties.getMaxWait());
+        builder.intervalBiFunction((attempt, either) -> {
+            long inheritedInterval = inherited.apply(attempt, either);
+            if (inheritedInterval < 0) {
+                return inheritedInterval;
+            }
+
+            IntervalBiFunction<T> backoff = jitter != null ? jitter : (a, e) -> inheritedInterval;
+            return retryAfter(backoff, properties.getMaxRetryAfter()).apply(attempt, either);
+        });
+    }
+
+    public static <T> IntervalBiFunction<T> decorrelatedJitter(Duration initialWait, Duration maxWait) {
+        long base = initialWait.toMillis();
+        long cap = maxWait.toMillis();
+        return (attempt, either) -> {
+            double upper = Math.min(cap, base * Math.pow(3, attempt));
+            return base + (long) (ThreadLocalRandom.current().nextDouble() * Math.max(0, upper - base));
+        };
+    }
+
+    // 응답 헤더의 Retry-After(초 또는 HTTP 날짜)가 있으면 그 시간을 기다린다
+    public static <T> IntervalBiFunction<T> retryAfter(IntervalBiFunction<T> backoff, Duration maxRetryAfter) {
+        return (attempt, either) -> {
+            long retryAfter = retryAfterMillis(either);
+            return retryAfter >= 0 ? Math.min(retryAfter, maxRetryAfter.toMillis()) : backoff.apply(attempt, either);
+        };
+    }
+
+    private static <T> long retryAfterMillis(Either<Throwable, T> either) {
+        if (either == null || either.isRight() || !(either.getLeft() instanceof HttpStatusCodeException e) || e.getResponseHeaders() == null) {
+            return -1;
+        }
+
+        String retryAfter = e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return -1;
+        }
+
+        try {
+            return Duration.ofSeconds(Long.parseLong(retryAfter.trim())).toMillis();
+        } catch (NumberFormatException ignored) {
+        }
+
+        try {
+            return Math.max(0, Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)).toMillis());
+        } catch (DateTimeParseException ignored) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package learn.resilience4j.retry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+// resilience4j.retry.backoff.instances.<name>
+// RetryCustomizerRegistrar가 빈 정의를 등록하기 전에 Binder로 직접 읽으므로 @ConfigurationProperties 빈으로 등록하지 않는다
+@Getter
+@Setter
+public class RetryBackoffProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    public enum Type {
+
+        // wait-duration 그대로
+        FIXED,
+
+        // 시도마다 [initial-wait, 직전 상한 x 3] 사이에서 무작위로 기다린다. 상한은 max-wait
+        DECORRELATED_JITTER
+    }
+
+    @Getter
+    @Setter
+    public static class InstanceProperties {
+
+        private Type type = Type.DECORRELATED_JITTER;
+
+        private Duration initialWait = Duration.ofMillis(500);
+
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        // 응답에 Retry-After가 있으면 계산한 대기 대신 그 시간을 기다린다. 이 시간보다 길면 이 시간만 기다린다
+        private Duration maxRetryAfter = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,102 @@
+package learn.resilience4j.retry;
+
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.stereotype.Component;
+
+// 노드의 모든 Retry 인스턴스가 공유하는 재시도 예산(토큰 버킷)
+// 원격 서비스가 장애일 때 재시도가 부하를 max-attempts배로 늘리지 않도록, 예산이 없으면 재시도하지 않고 마지막 예외를 그대로 던진다
+// - 성공한 호출은 요청 경로에서 기록하지 않고, 실패했을 때 Retry 메트릭의 성공 호출 수 증가분만큼 한꺼번에 쌓는다
+// - 재시도할지는 설정의 예외 조건이 정하고, 예산은 실제로 재시도하기 직전 대기 시간을 정할 때만 확인하며 1씩 꺼낸다
+//   마지막 시도의 실패나 재시도하지 않는 예외에서는 확인하지 않으므로, 예산이 없어 멈춘 재시도만 exhausted로 센다
+// - 예산이 없으면 음수 대기 시간을 반환한다. resilience4j는 재시도를 멈추고 RetryOnErrorEvent를 발행한 뒤 마지막 예외를 던지므로
+//   Retry 메트릭에는 재시도 후 실패가 아닌 예외(failedWithoutRetry, RetryOnIgnoredErrorEvent)로 남지 않는다
+@Component
+public class RetryBudget implements RegistryEventConsumer<Retry> {
+
+    private final RetryBudgetProperties properties;
+
+    private final List<Retry> retries = new CopyOnWriteArrayList<>();
+
+    private final Counter exhausted;
+
+    private double tokens;
+
+    private long depositedCalls;
+
+    public RetryBudget(RetryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.tokens = properties.getMaxTokens();
+        this.exhausted = Counter.builder("retry.budget.exhausted").register(meterRegistry);
+        Gauge.builder("retry.budget.tokens", this, RetryBudget::getTokens).register(meterRegistry);
+    }
+
+    // 설정에 있는 대기 시간 함수 앞에서 예산을 확인한다
+    // RetryCustomizerRegistrar는 이 함수 위에 RetryBackoff를 적용하고, RetryBackoff는 이 함수가 음수를 반환하면 그대로 따른다
+    public <T> void decorate(RetryConfig.Builder<T> builder) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        IntervalBiFunction<T> interval = builder.build().getIntervalBiFunction();
+        builder.intervalBiFunction((attempt, either) -> tryWithdraw() ? interval.apply(attempt, either) : -1L);
+    }
+
+    public void register(Retry retry) {
+        retries.add(retry);
+    }
+
+    public synchronized double getTokens() {
+        deposit();
+        return tokens;
+    }
+
+    @Override
+    public void onEntryAddedEvent(EntryAddedEvent<Retry> entryAddedEvent) {
+        register(entryAddedEvent.getAddedEntry());
+    }
+
+    @Override
+    public void onEntryRemovedEvent(EntryRemovedEvent<Retry> entryRemoveEvent) {
+        retries.remove(entryRemoveEvent.getRemovedEntry());
+    }
+
+    @Override
+    public void onEntryReplacedEvent(EntryReplacedEvent<Retry> entryReplacedEvent) {
+        retries.remove(entryReplacedEvent.getOldEntry());
+        register(entryReplacedEvent.getNewEntry());
+    }
+
+    private synchronized boolean tryWithdraw() {
+        deposit();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        exhausted.increment();
+        return false;
+    }
+
+    private void deposit() {
+        long calls = 0;
+        for (Retry retry : retries) {
+            Retry.Metrics metrics = retry.getMetrics();
+            calls += metrics.getNumberOfSuccessfulCallsWithoutRetryAttempt() + metrics.getNumberOfSuccessfulCallsWithRetryAttempt();
+        }
+
+        if (calls > depositedCalls) {
+            tokens = Math.min(properties.getMaxTokens(), tokens + (calls - depositedCalls) * properties.getDepositRatio());
+        }
+        depositedCalls = calls;
+    }
+}
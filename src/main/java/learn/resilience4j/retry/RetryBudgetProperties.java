@@ -0,0 +1,20 @@
+package learn.resilience4j.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// resilience4j.retry 아래에 두지만 resilience4j의 RetryProperties는 모르는 키이므로 따로 바인딩한다
+@ConfigurationProperties("resilience4j.retry.budget")
+@Getter
+@Setter
+public class RetryBudgetProperties {
+
+    private boolean enabled = true;
+
+    // 성공한 호출마다 이만큼 예산이 쌓이고 재시도마다 1씩 꺼낸다. 0.1이면 재시도는 성공한 호출의 10%를 넘지 않는다
+    private double depositRatio = 0.1;
+
+    // 쌓아둘 수 있는 최대 예산. 처음에는 가득 찬 상태로 시작한다
+    private double maxTokens = 10;
+}
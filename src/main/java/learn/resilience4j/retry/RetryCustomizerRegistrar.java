@@ -0,0 +1,91 @@
+package learn.resilience4j.retry;
+
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.RetryConfig;
+import java.util.Set;
+import java.util.TreeSet;
+import learn.resilience4j.retry.RetryBackoffProperties.InstanceProperties;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+// resilience4j는 인스턴스를 만들 때 인스턴스 이름의 customizer만 적용하고, base-config의 설정을 만들 때도 인스턴스 이름을 쓴다
+// 그래서 default 설정의 customizer는 설정에 없는 이름으로 만드는 인스턴스에만 적용되므로(Resilience4jConfig.retryBudgetCustomizer)
+// resilience4j.retry.instances와 resilience4j.retry.backoff.instances의 이름마다 재시도 예산과 대기 시간을 함께 적용하는 customizer를 등록한다
+// RetryConfigCustomizer는 이름 하나에 하나만 등록할 수 있다
+@Component
+public class RetryCustomizerRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        Binder binder = Binder.get(environment);
+        RetryBackoffProperties backoffProperties = binder.bind("resilience4j.retry.backoff", RetryBackoffProperties.class)
+                                                         .orElseGet(RetryBackoffProperties::new);
+
+        Set<String> names = new TreeSet<>(backoffProperties.getInstances().keySet());
+        binder.bind("resilience4j.retry.instances", Bindable.mapOf(String.class, Object.class)).ifBound(instances -> names.addAll(instances.keySet()));
+
+        for (String name : names) {
+            if (name.equals("default")) {
+                throw new IllegalStateException("A retry instance named default is not supported. Configure each retry instance by name");
+            }
+            InstanceProperties backoff = backoffProperties.getInstances().get(name);
+            registry.registerBeanDefinition(name + "RetryConfigCustomizer",
+                                            BeanDefinitionBuilder.genericBeanDefinition(RetryConfigCustomizer.class,
+                                                                                        () -> customizer(name, backoff))
+                                                                 .getBeanDefinition());
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    // 빈을 만들 때 호출하므로 RetryBudget 빈을 찾을 수 있다
+    private RetryConfigCustomizer customizer(String name, InstanceProperties backoff) {
+        RetryBudget retryBudget = beanFactory.getBean(RetryBudget.class);
+        return RetryConfigCustomizer.of(name, builder -> customize(builder, retryBudget, backoff));
+    }
+
+    // base-config가 있으면 같은 customizer가 base-config의 설정과 인스턴스 설정에 두 번 적용된다
+    // 재시도마다 예산을 두 번 꺼내지 않도록 이미 적용한 대기 시간 함수는 적용하기 전의 함수부터 다시 적용한다
+    static <T> void customize(RetryConfig.Builder<T> builder, RetryBudget retryBudget, InstanceProperties backoff) {
+        IntervalBiFunction<T> interval = builder.build().getIntervalBiFunction();
+        if (interval instanceof Customized<T> customized) {
+            interval = customized.original();
+            builder.intervalBiFunction(interval);
+        }
+
+        retryBudget.decorate(builder);
+        if (backoff != null) {
+            RetryBackoff.decorate(builder, backoff);
+        }
+        builder.intervalBiFunction(new Customized<>(interval, builder.build().getIntervalBiFunction()));
+    }
+
+    private record Customized<T>(IntervalBiFunction<T> original, IntervalBiFunction<T> customized) implements IntervalBiFunction<T> {
+
+        @Override
+        public Long apply(Integer attempt, Either<Throwable, T> either) {
+            return customized.apply(attempt, either);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package learn.resilience4j.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 느린 원격 서비스. ExternalService.slowness()처럼 호출 스레드를 블로킹하고, 인터럽트되면 바로 끝난다
+// 노드가 동시에 붙잡고 있는 원격 호출 수를 downstream.calls.in.flight(.peak) 지표로 노출한다
+@Component
+public class Downstream {
+
+    private volatile Duration slowness;
+
+    private volatile Duration failureLatency = Duration.ZERO;
+
+    private final AtomicInteger inFlightCalls = new AtomicInteger();
+
+    private final AtomicInteger peakInFlightCalls = new AtomicInteger();
+
+    public Downstream(@Value("${downstream.slowness}") Duration slowness, MeterRegistry meterRegistry) {
+        this.slowness = slowness;
+
+        Gauge.builder("downstream.calls.in.flight", inFlightCalls, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("downstream.calls.in.flight.peak", peakInFlightCalls, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public String slowness() {
+        call(slowness);
+
+        return "Slowness";
+    }
+
+    // failureLatency만큼 블로킹한 뒤 500을 던진다. 응답하지 않다가 실패하는 원격 서비스
+    public String failure() {
+        call(failureLatency);
+
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+
+    public Duration getSlowness() {
+        return slowness;
+    }
+
+    // 원격 서비스의 지연이 갑자기 늘어나는 상황을 흉내 낸다
+    public void setSlowness(Duration slowness) {
+        this.slowness = slowness;
+    }
+
+    public void setFailureLatency(Duration failureLatency) {
+        this.failureLatency = failureLatency;
+    }
+
+    public int getInFlightCalls() {
+        return inFlightCalls.get();
+    }
+
+    public int getPeakInFlightCalls() {
+        return peakInFlightCalls.get();
+    }
+
+    // 측정 구간을 시작할 때 지금 붙잡고 있는 호출 수부터 다시 센다
+    public void resetPeakInFlightCalls() {
+        peakInFlightCalls.set(inFlightCalls.get());
+    }
+
+    // latency 동안 호출 스레드를 블로킹한다. 부하 테스트의 StubDownstream은 호출마다 다른 지연을 넘긴다
+    protected void call(Duration latency) {
+        peakInFlightCalls.accumulateAndGet(inFlightCalls.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlightCalls.decrementAndGet();
+        }
+    }
+}
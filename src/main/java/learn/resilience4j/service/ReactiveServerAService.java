@@ -0,0 +1,54 @@
+package learn.resilience4j.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Mono;
+
+// ServerAService의 리액티브 버전. 같은 serverA 인스턴스를 공유한다
+@Service
+public class ReactiveServerAService {
+
+    private static final String SERVER_A = "serverA";
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    private final Downstream downstream;
+
+    public ReactiveServerAService(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry, Downstream downstream) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(SERVER_A);
+        this.bulkhead = bulkheadRegistry.bulkhead(SERVER_A);
+        this.downstream = downstream;
+    }
+
+    public Mono<String> success() {
+        return decorate(Mono.just("Success"));
+    }
+
+    public Mono<String> failure() {
+        return decorate(Mono.error(() -> new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생")));
+    }
+
+    public Mono<String> failureWithFallback() {
+        return failure().onErrorResume(HttpServerErrorException.class, e -> Mono.just("Recovered from HttpServerErrorException: " + e.getMessage()))
+                        .onErrorResume(e -> Mono.just("Recovered: " + e.getMessage()));
+    }
+
+    // 원격 호출을 기다리는 동안 스레드를 블로킹하지 않는다
+    public Mono<String> slowness() {
+        return decorate(Mono.delay(downstream.getSlowness()).thenReturn("Slowness"));
+    }
+
+    private Mono<String> decorate(Mono<String> call) {
+        return call.transformDeferred(BulkheadOperator.of(bulkhead))
+                   .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
@@ -0,0 +1,40 @@
+package learn.resilience4j.service;
+
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Mono;
+
+// ServerBService의 리액티브 버전. 재시도 대기는 Mono.delay로 Reactor의 parallel 스케줄러에 스케줄되어 스레드를 점유하지 않는다
+// ServerBService처럼 원격 호출을 붙잡지 않으므로 bulkhead를 두지 않는다
+@Service
+@Slf4j
+public class ReactiveServerBService {
+
+    private static final String SERVER_B = "serverB";
+
+    private final Retry retry;
+
+    public ReactiveServerBService(RetryRegistry retryRegistry) {
+        this.retry = retryRegistry.retry(SERVER_B);
+    }
+
+    public Mono<String> success() {
+        return decorate(Mono.just("Success"));
+    }
+
+    public Mono<String> failure() {
+        return decorate(Mono.fromSupplier(() -> {
+            log.info("서버 장애 발생");
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+        }));
+    }
+
+    private Mono<String> decorate(Mono<String> call) {
+        return call.transformDeferred(RetryOperator.of(retry));
+    }
+}
@@ -0,0 +1,73 @@
+package learn.resilience4j.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Mono;
+
+// ServerCService의 리액티브 버전. 어노테이션과 같은 순서로 Retry(CircuitBreaker(Bulkhead(호출)))
+@Service
+@Slf4j
+public class ReactiveServerCService {
+
+    private static final String SERVER_C = "serverC";
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Retry retry;
+
+    private final Bulkhead bulkhead;
+
+    private final Downstream downstream;
+
+    public ReactiveServerCService(CircuitBreakerRegistry circuitBreakerRegistry, RetryRegistry retryRegistry, BulkheadRegistry bulkheadRegistry,
+                                  Downstream downstream) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(SERVER_C);
+        this.retry = retryRegistry.retry(SERVER_C);
+        this.bulkhead = bulkheadRegistry.bulkhead(SERVER_C);
+        this.downstream = downstream;
+    }
+
+    public Mono<String> success() {
+        return decorate(Mono.just("Success"));
+    }
+
+    public Mono<String> failure() {
+        return decorate(downstreamFailure());
+    }
+
+    // ServerCService.failureWithFallback()처럼 재시도 없이 서킷 브레이커만 적용한다
+    public Mono<String> failureWithFallback() {
+        return downstreamFailure().transformDeferred(BulkheadOperator.of(bulkhead))
+                                  .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                  .onErrorResume(HttpServerErrorException.class, e -> Mono.just("Recovered from HttpServerErrorException: " + e.getMessage()))
+                                  .onErrorResume(e -> Mono.just("Recovered: " + e.getMessage()));
+    }
+
+    public Mono<String> slowness() {
+        return decorate(Mono.delay(downstream.getSlowness()).thenReturn("Slowness"));
+    }
+
+    private Mono<String> downstreamFailure() {
+        return Mono.fromSupplier(() -> {
+            log.info("서버 장애 발생");
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+        });
+    }
+
+    private Mono<String> decorate(Mono<String> call) {
+        return call.transformDeferred(BulkheadOperator.of(bulkhead))
+                   .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                   .transformDeferred(RetryOperator.of(retry));
+    }
+}
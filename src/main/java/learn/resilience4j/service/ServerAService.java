@@ -1,15 +1,47 @@
 package learn.resilience4j.service;
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import learn.resilience4j.batch.BatchExecutor;
+import learn.resilience4j.batch.BatchExecutor.Item;
+import learn.resilience4j.batch.BatchItemResult;
+import learn.resilience4j.cache.annotation.CachedResponse;
+import learn.resilience4j.circuitbreaker.annotation.KeyedCircuitBreaker;
+import learn.resilience4j.coalescing.annotation.Coalesced;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpServerErrorException;
 
 @Service
+@RequiredArgsConstructor
 public class ServerAService {
 
     private static final String SERVER_A = "serverA";
 
+    private final Downstream downstream;
+
+    private final TimeLimiterRegistry timeLimiterRegistry;
+
+    @Qualifier("timeLimiterExecutorService")
+    private final ExecutorService timeLimiterExecutorService;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private final BatchExecutor batchExecutor;
+
+    @CachedResponse(name = SERVER_A)
+    @Coalesced(name = SERVER_A)
     @CircuitBreaker(name = SERVER_A)
     public String success() {
         return "Success";
@@ -25,6 +57,65 @@ public class ServerAService {
         throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
     }
 
+    @Bulkhead(name = SERVER_A)
+    @CircuitBreaker(name = SERVER_A)
+    public String slowness() throws Exception {
+        return timeLimitedSlowness();
+    }
+
+    // 원격 호스트마다 serverA 설정을 따르는 서킷 브레이커를 따로 사용한다
+    @Coalesced(name = SERVER_A)
+    @KeyedCircuitBreaker(name = SERVER_A, key = "#host")
+    public String success(String host) {
+        return "Success";
+    }
+
+    @KeyedCircuitBreaker(name = SERVER_A, key = "#host")
+    public String failure(String host) {
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+
+    // 배치 항목이 될 수 있는 단건 엔드포인트 이름
+    public static final Set<String> BATCH_OPERATIONS = Set.of("success", "failure", "failureWithFallback", "slowness");
+
+    // 항목마다 서킷 브레이커 허가, AOP, HTTP 비용을 치르지 않도록 배치 전체에 serverA 서킷 브레이커를 한 번 적용한다
+    // 항목은 BATCH_OPERATIONS 중 하나다. 컨트롤러가 먼저 확인한다
+    public List<BatchItemResult> batch(List<String> operations) {
+        return batchExecutor.execute(circuitBreakerRegistry.circuitBreaker(SERVER_A), operations.stream().map(this::batchItem).toList());
+    }
+
+    private Item batchItem(String operation) {
+        return switch (operation) {
+            case "success" -> new Item(() -> "Success", null);
+            case "failure" -> new Item(this::serverError, null);
+            case "failureWithFallback" -> new Item(this::serverError, this::recover);
+            // 단건 slowness()처럼 serverA bulkhead와 TimeLimiter를 거친다. bulkhead가 가득 차면 기다리지 않고 실패한다
+            case "slowness" -> new Item(bulkheadRegistry.bulkhead(SERVER_A).decorateCallable(this::timeLimitedSlowness), null);
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+    }
+
+    // 다른 스레드에서 호출하고 제한 시간이 지나면 인터럽트로 취소하고 TimeoutException을 던진다
+    // 배치가 시간을 넘겨 항목을 인터럽트로 취소하면 TimeLimiter는 원격 호출을 취소하지 않으므로 여기서 취소한다
+    private String timeLimitedSlowness() throws Exception {
+        Future<String> call = timeLimiterExecutorService.submit(downstream::slowness);
+        try {
+            return timeLimiterRegistry.timeLimiter(SERVER_A).executeFutureSupplier(() -> call);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            throw e;
+        }
+    }
+
+    private String serverError() {
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+
+    // fallbackMethod처럼 예외 타입이 가장 가까운 대비책을 고른다
+    private String recover(Exception e) {
+        return e instanceof HttpServerErrorException serverError ? fallback(serverError) : fallback(e);
+    }
+
     // 대비책이 될 메서드의 메서드 Signature와 같아야 한다
     private String fallback(HttpServerErrorException e) {
         return "Recovered from HttpServerErrorException: " + e.getMessage();
@@ -1,6 +1,7 @@
 package learn.resilience4j.service;
 
 import io.github.resilience4j.retry.annotation.Retry;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,18 @@ public class ServerBService {
         throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
     }
 
+    // CompletionStage를 반환하면 재시도 대기는 스케줄러가 맡으므로 대기하는 동안 요청 스레드를 점유하지 않는다
+    @Retry(name = SERVER_B)
+    public CompletableFuture<String> successAsync() {
+        return CompletableFuture.completedFuture("Success");
+    }
+
+    @Retry(name = SERVER_B)
+    public CompletableFuture<String> failureAsync() {
+        log.info("서버 장애 발생");
+        return CompletableFuture.failedFuture(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생"));
+    }
+
     private String fallback(HttpServerErrorException e) {
         return "Recovered from HttpServerErrorException: " + e.getMessage();
     }
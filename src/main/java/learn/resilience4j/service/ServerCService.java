@@ -1,29 +1,62 @@
 package learn.resilience4j.service;
 
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import io.github.resilience4j.retry.annotation.Retry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import learn.resilience4j.hedging.annotation.Hedged;
+import learn.resilience4j.limiter.annotation.AdaptiveConcurrencyLimit;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpServerErrorException;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class ServerCService {
 
     private static final String SERVER_C = "serverC";
 
+    private final Downstream downstream;
+
+    private final TimeLimiterRegistry timeLimiterRegistry;
+
+    @Qualifier("timeLimiterExecutorService")
+    private final ExecutorService timeLimiterExecutorService;
+
+    @AdaptiveConcurrencyLimit(name = SERVER_C)
     @CircuitBreaker(name = SERVER_C)
     @Retry(name = SERVER_C)
     public String success() {
         return "Success";
     }
 
+    @AdaptiveConcurrencyLimit(name = SERVER_C)
+    @Bulkhead(name = SERVER_C)
     @CircuitBreaker(name = SERVER_C)
     @Retry(name = SERVER_C)
     public String failure() {
         log.info("서버 장애 발생");
-        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+        return downstream.failure();
+    }
+
+    @CircuitBreaker(name = SERVER_C)
+    @Retry(name = SERVER_C)
+    public CompletableFuture<String> successAsync() {
+        return CompletableFuture.completedFuture("Success");
+    }
+
+    @CircuitBreaker(name = SERVER_C)
+    @Retry(name = SERVER_C)
+    public CompletableFuture<String> failureAsync() {
+        log.info("서버 장애 발생");
+        return CompletableFuture.failedFuture(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생"));
     }
 
     @CircuitBreaker(name = SERVER_C, fallbackMethod = "fallback")
@@ -32,6 +65,32 @@ public class ServerCService {
         throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
     }
 
+    @AdaptiveConcurrencyLimit(name = SERVER_C)
+    @Bulkhead(name = SERVER_C)
+    @CircuitBreaker(name = SERVER_C)
+    @Retry(name = SERVER_C)
+    @Hedged(name = SERVER_C)
+    public String slowness() throws Exception {
+        // 다른 스레드에서 호출하고 제한 시간이 지나면 인터럽트로 취소하고 TimeoutException을 던진다
+        Future<String> call = timeLimiterExecutorService.submit(downstream::slowness);
+        try {
+            return timeLimiterRegistry.timeLimiter(SERVER_C).executeFutureSupplier(() -> call);
+        } catch (InterruptedException e) {
+            // 먼저 끝난 추가 호출이 이 호출을 인터럽트로 취소했다. TimeLimiter는 제한 시간이 지났을 때만 원격 호출을 취소하므로
+            // 여기서 취소하지 않으면 bulkhead 허가를 반납한 뒤에도 원격 호출이 계속된다
+            call.cancel(true);
+            throw e;
+        }
+    }
+
+    // 원격 호출을 serverC 스레드 풀 bulkhead에서 실행한다. 요청 스레드는 기다리지 않는다
+    // 스레드와 대기열이 모두 차면 BulkheadFullException으로 거절한다
+    @CircuitBreaker(name = SERVER_C)
+    @Bulkhead(name = SERVER_C, type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<String> slownessAsync() {
+        return CompletableFuture.completedFuture(downstream.slowness());
+    }
+
     private String fallback(HttpServerErrorException e) {
         return "Recovered from HttpServerErrorException: " + e.getMessage();
     }
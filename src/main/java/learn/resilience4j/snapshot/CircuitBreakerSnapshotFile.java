@@ -0,0 +1,177 @@
+package learn.resilience4j.snapshot;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// 서킷 브레이커 상태와 윈도우 집계를 메모리 매핑한 파일에 쓰고 읽는다
+//
+// header x 2: magic(int) version(int) sequence(long) timestamp(long) count(int) offset(int) length(int) crc(long)
+// entry     : name length(short) name(UTF-8) state(byte) successful(int) failed(int) slowSuccessful(int) slowFailed(int)
+//
+// 헤더 두 개를 번갈아 쓴다. 새 스냅샷은 마지막으로 쓴 스냅샷의 항목과 겹치지 않는 곳에 항목을 먼저 쓰고, 마지막으로 쓰지 않은 헤더를 마지막에 쓴다
+// 쓰는 도중에 프로세스가 죽으면 그 헤더는 CRC(헤더 필드와 항목)가 맞지 않으므로, read()는 다른 헤더의 직전 스냅샷을 반환한다
+public class CircuitBreakerSnapshotFile implements AutoCloseable {
+
+    private static final int MAGIC = 0x52344A53; // R4JS
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 5 + Long.BYTES * 3;
+
+    private static final int ENTRIES_OFFSET = HEADER_SIZE * 2;
+
+    private static final int ENTRY_SIZE_WITHOUT_NAME = Short.BYTES + Byte.BYTES + Integer.BYTES * 4;
+
+    private static final CircuitBreaker.State[] STATES = CircuitBreaker.State.values();
+
+    private final FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    public CircuitBreakerSnapshotFile(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), ENTRIES_OFFSET));
+    }
+
+    // 한 스레드에서만 호출한다
+    public void write(Collection<CircuitBreaker> circuitBreakers, long timestamp) throws IOException {
+        List<CircuitBreaker> written = new ArrayList<>(circuitBreakers);
+        List<byte[]> names = new ArrayList<>(written.size());
+        int length = 0;
+        for (CircuitBreaker circuitBreaker : written) {
+            byte[] name = circuitBreaker.getName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            length += ENTRY_SIZE_WITHOUT_NAME + name.length;
+        }
+
+        // 마지막 스냅샷의 항목 앞에 자리가 있으면 앞에, 없으면 뒤에 쓴다. 크기가 비슷하면 두 자리를 번갈아 쓴다
+        Header latest = latest(buffer);
+        int slot = latest == null ? 0 : 1 - latest.slot();
+        int offset = latest == null || length <= latest.offset() - ENTRIES_OFFSET ? ENTRIES_OFFSET : latest.offset() + latest.length();
+        ensureCapacity((long) offset + length);
+
+        buffer.position(offset);
+        for (int i = 0; i < written.size(); i++) {
+            CircuitBreaker circuitBreaker = written.get(i);
+            byte[] name = names.get(i);
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            buffer.putShort((short) name.length)
+                  .put(name)
+                  .put((byte) circuitBreaker.getState().ordinal())
+                  .putInt(metrics.getNumberOfSuccessfulCalls())
+                  .putInt(metrics.getNumberOfFailedCalls())
+                  .putInt(metrics.getNumberOfSlowSuccessfulCalls())
+                  .putInt(metrics.getNumberOfSlowFailedCalls());
+        }
+
+        Header header = new Header(slot, latest == null ? 1 : latest.sequence() + 1, timestamp, written.size(), offset, length);
+        int base = slot * HEADER_SIZE;
+        buffer.putInt(base, MAGIC)
+              .putInt(base + Integer.BYTES, VERSION)
+              .putLong(base + Integer.BYTES * 2, header.sequence())
+              .putLong(base + Integer.BYTES * 2 + Long.BYTES, header.timestamp())
+              .putInt(base + Integer.BYTES * 2 + Long.BYTES * 2, header.count())
+              .putInt(base + Integer.BYTES * 3 + Long.BYTES * 2, header.offset())
+              .putInt(base + Integer.BYTES * 4 + Long.BYTES * 2, header.length())
+              .putLong(base + Integer.BYTES * 5 + Long.BYTES * 2, checksum(buffer, header));
+    }
+
+    public Snapshot read() {
+        ByteBuffer snapshot = buffer.duplicate();
+        Header header = latest(snapshot);
+        if (header == null) {
+            return Snapshot.EMPTY;
+        }
+
+        List<Entry> entries = new ArrayList<>(header.count());
+        snapshot.position(header.offset());
+        for (int i = 0; i < header.count(); i++) {
+            byte[] name = new byte[snapshot.getShort()];
+            snapshot.get(name);
+            entries.add(new Entry(new String(name, StandardCharsets.UTF_8), STATES[snapshot.get()],
+                                  snapshot.getInt(), snapshot.getInt(), snapshot.getInt(), snapshot.getInt()));
+        }
+        return new Snapshot(header.timestamp(), entries);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensureCapacity(long size) throws IOException {
+        if (size > buffer.capacity()) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, buffer.capacity() * 2L));
+        }
+    }
+
+    // 두 헤더 중 CRC가 맞는 더 최근의 헤더. 둘 다 깨졌으면 null
+    private static Header latest(ByteBuffer buffer) {
+        Header first = header(buffer, 0);
+        Header second = header(buffer, 1);
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first.sequence() > second.sequence() ? first : second;
+    }
+
+    private static Header header(ByteBuffer buffer, int slot) {
+        int base = slot * HEADER_SIZE;
+        if (buffer.getInt(base) != MAGIC || buffer.getInt(base + Integer.BYTES) != VERSION) {
+            return null;
+        }
+
+        Header header = new Header(slot,
+                                   buffer.getLong(base + Integer.BYTES * 2),
+                                   buffer.getLong(base + Integer.BYTES * 2 + Long.BYTES),
+                                   buffer.getInt(base + Integer.BYTES * 2 + Long.BYTES * 2),
+                                   buffer.getInt(base + Integer.BYTES * 3 + Long.BYTES * 2),
+                                   buffer.getInt(base + Integer.BYTES * 4 + Long.BYTES * 2));
+        if (header.count() < 0 || header.offset() < ENTRIES_OFFSET || header.length() < 0
+            || (long) header.offset() + header.length() > buffer.capacity()) {
+            return null;
+        }
+        return checksum(buffer, header) == buffer.getLong(base + Integer.BYTES * 5 + Long.BYTES * 2) ? header : null;
+    }
+
+    private static long checksum(ByteBuffer buffer, Header header) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES * 2 + Integer.BYTES * 3)
+                             .putLong(header.sequence())
+                             .putLong(header.timestamp())
+                             .putInt(header.count())
+                             .putInt(header.offset())
+                             .putInt(header.length())
+                             .flip());
+        crc.update(buffer.slice(header.offset(), header.length()));
+        return crc.getValue();
+    }
+
+    private record Header(int slot, long sequence, long timestamp, int count, int offset, int length) {
+
+    }
+
+    public record Snapshot(long timestamp, List<Entry> entries) {
+
+        static final Snapshot EMPTY = new Snapshot(0, List.of());
+    }
+
+    // successful, failed는 느린 호출을 포함한 수
+    public record Entry(String name, CircuitBreaker.State state, int successful, int failed, int slowSuccessful, int slowFailed) {
+
+    }
+}
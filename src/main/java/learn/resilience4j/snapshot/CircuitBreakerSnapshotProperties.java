@@ -0,0 +1,22 @@
+package learn.resilience4j.snapshot;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("circuitbreaker-snapshot")
+@Getter
+@Setter
+public class CircuitBreakerSnapshotProperties {
+
+    private boolean enabled = false;
+
+    private Path path = Path.of("circuitbreakers.snapshot");
+
+    private Duration interval = Duration.ofSeconds(1);
+
+    // 이보다 오래된 스냅샷은 복원하지 않는다
+    private Duration maxAge = Duration.ofMinutes(1);
+}
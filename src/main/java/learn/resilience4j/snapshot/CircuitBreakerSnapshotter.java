@@ -0,0 +1,167 @@
+package learn.resilience4j.snapshot;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.IllegalStateTransitionException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import learn.resilience4j.snapshot.CircuitBreakerSnapshotFile.Entry;
+import learn.resilience4j.snapshot.CircuitBreakerSnapshotFile.Snapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 재시작해도 장애 중인 원격 서비스에 minimum-number-of-calls만큼 다시 호출하지 않도록
+// circuitbreaker-snapshot.interval마다 모든 서킷 브레이커의 상태와 윈도우 집계를 파일에 쓰고, 시작할 때 복원한다
+// 모든 싱글톤 빈을 만든 뒤, 웹 서버가 요청을 받기 전에 복원한다
+// - 설정(resilience4j.circuitbreaker.instances)으로 만든 서킷 브레이커만 복원한다. KeyedCircuitBreakerRegistry의 키별 서킷 브레이커는 다시 만들지 않는다
+// - CLOSED는 윈도우 집계만큼 호출 결과를 다시 기록한다. 윈도우의 순서는 저장하지 않으므로 결과의 비율이 고르게 섞이도록 기록한다
+// - OPEN은 wait-duration-in-open-state를 처음부터 기다린다
+// - HALF_OPEN은 CLOSED에서 바로 넘어갈 수 없으므로 OPEN으로 복원한다. wait-duration-in-open-state가 지나면 다시 HALF_OPEN이 된다
+@Slf4j
+public class CircuitBreakerSnapshotter implements SmartInitializingSingleton, DisposableBean {
+
+    private final CircuitBreakerSnapshotProperties properties;
+
+    private final CircuitBreakerRegistry registry;
+
+    private final CircuitBreakerSnapshotFile file;
+
+    private final Clock clock;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("circuitbreaker-snapshot-"));
+
+    public CircuitBreakerSnapshotter(CircuitBreakerSnapshotProperties properties, CircuitBreakerRegistry registry, Clock clock) {
+        this.properties = properties;
+        this.registry = registry;
+        this.clock = clock;
+        try {
+            this.file = new CircuitBreakerSnapshotFile(properties.getPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int restored = restore();
+        log.info("Restored {} circuit breakers from {}", restored, properties.getPath());
+
+        long interval = properties.getInterval().toNanos();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public void snapshot() throws IOException {
+        file.write(registry.getAllCircuitBreakers(), clock.millis());
+    }
+
+    public int restore() {
+        Snapshot snapshot = file.read();
+        if (clock.millis() - snapshot.timestamp() > properties.getMaxAge().toMillis()) {
+            return 0;
+        }
+
+        int restored = 0;
+        for (Entry entry : snapshot.entries()) {
+            Optional<CircuitBreaker> circuitBreaker = registry.find(entry.name());
+            if (circuitBreaker.isPresent() && circuitBreaker.get().getState() == CircuitBreaker.State.CLOSED) {
+                // 항목 하나를 복원하지 못해도 나머지를 복원하고 노드는 시작한다
+                try {
+                    restore(circuitBreaker.get(), entry);
+                    restored++;
+                } catch (IllegalStateTransitionException e) {
+                    log.warn("Failed to restore circuit breaker {} to {}", entry.name(), entry.state(), e);
+                }
+            }
+        }
+        return restored;
+    }
+
+    // 주기적인 스냅샷이 파일에 쓰는 중이면 끝날 때까지 기다린 뒤 마지막 스냅샷을 쓴다
+    // 인터럽트하면 FileChannel이 닫히므로 shutdownNow()를 쓰지 않는다
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        try {
+            if (scheduler.awaitTermination(properties.getInterval().toNanos() + TimeUnit.SECONDS.toNanos(5), TimeUnit.NANOSECONDS)) {
+                snapshot();
+            } else {
+                log.warn("Skipped the final snapshot to {} because the periodic snapshot did not finish", properties.getPath());
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.warn("Failed to snapshot circuit breakers to {}", properties.getPath(), e);
+        }
+    }
+
+    private void restore(CircuitBreaker circuitBreaker, Entry entry) {
+        switch (entry.state()) {
+            case CLOSED -> replay(circuitBreaker, entry);
+            case OPEN, HALF_OPEN -> circuitBreaker.transitionToOpenState();
+            case FORCED_OPEN -> circuitBreaker.transitionToForcedOpenState();
+            case DISABLED -> circuitBreaker.transitionToDisabledState();
+            case METRICS_ONLY -> circuitBreaker.transitionToMetricsOnlyState();
+        }
+    }
+
+    // 빠른 성공, 느린 성공, 빠른 실패, 느린 실패를 각자의 비율에 가장 못 미친 것부터 기록한다
+    private void replay(CircuitBreaker circuitBreaker, Entry entry) {
+        CircuitBreakerConfig config = circuitBreaker.getCircuitBreakerConfig();
+        long fast = 0;
+        long slow = config.getSlowCallDurationThreshold().toNanos() + 1;
+        Throwable failure = recordedFailure(config);
+
+        int[] counts = {entry.successful() - entry.slowSuccessful(), entry.slowSuccessful(),
+                        failure == null ? 0 : entry.failed() - entry.slowFailed(), failure == null ? 0 : entry.slowFailed()};
+        int total = counts[0] + counts[1] + counts[2] + counts[3];
+        int[] replayed = new int[counts.length];
+
+        for (int call = 1; call <= total; call++) {
+            int next = 0;
+            double largestDeficit = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < counts.length; i++) {
+                double deficit = (double) counts[i] * call / total - replayed[i];
+                if (replayed[i] < counts[i] && deficit > largestDeficit) {
+                    largestDeficit = deficit;
+                    next = i;
+                }
+            }
+            replayed[next]++;
+
+            switch (next) {
+                case 0 -> circuitBreaker.onSuccess(fast, TimeUnit.NANOSECONDS);
+                case 1 -> circuitBreaker.onSuccess(slow, TimeUnit.NANOSECONDS);
+                case 2 -> circuitBreaker.onError(fast, TimeUnit.NANOSECONDS, failure);
+                default -> circuitBreaker.onError(slow, TimeUnit.NANOSECONDS, failure);
+            }
+        }
+    }
+
+    // 이 서킷 브레이커가 실패로 기록하는 예외
+    private static Throwable recordedFailure(CircuitBreakerConfig config) {
+        List<Throwable> candidates = List.of(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR), new IOException(), new TimeoutException(),
+                                             new RuntimeException());
+        return candidates.stream()
+                         .filter(candidate -> config.getRecordExceptionPredicate().test(candidate) && !config.getIgnoreExceptionPredicate().test(candidate))
+                         .findFirst()
+                         .orElse(null);
+    }
+}
@@ -0,0 +1,149 @@
+package learn.resilience4j.prototype;
+
+import io.github.resilience4j.core.metrics.Metrics;
+import io.github.resilience4j.core.metrics.Snapshot;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// FixedSizeSlidingWindowMetrics(COUNT_BASED)와 같은 집계를 잠금 없이 한다
+// FixedSizeSlidingWindowMetrics는 record()마다 synchronized로 직렬화되어 많은 코어에서 하나의 서킷 브레이커를 호출하면 경합이 생긴다
+// 여기서는 호출마다 원형 버퍼의 칸을 AtomicLong으로 배정받아 결과와 지연을 한 long에 담아 getAndSet으로 교체하고, 교체된 결과만큼 LongAdder 카운터를 빼고 더한다
+// 결과와 지연을 한 번에 교체하므로 같은 칸을 두 호출이 엇갈려 교체해도 짝이 어긋나지 않고, 더한 만큼 빼므로 카운터는 항상 버퍼 내용과 일치한다
+// 스냅샷은 카운터를 하나씩 읽으므로 동시 기록 중에는 근사값이다
+// resilience4j 2.1.0은 CircuitBreakerStateMachine 안에서 윈도우를 만들고 바꿀 방법이 없어 서킷 브레이커에 연결하지 못한다
+// 그래서 애플리케이션과 분리한 prototype 소스 세트에 두고 SlidingWindowMetricsBenchmark에서 FixedSizeSlidingWindowMetrics와 비교한다
+public class LockFreeSlidingWindowMetrics implements Metrics {
+
+    private static final long EMPTY = 0;
+
+    // 칸의 하위 3비트는 Outcome.ordinal() + 1, 나머지는 밀리초 지연
+    private static final int OUTCOME_BITS = 3;
+
+    private static final long OUTCOME_MASK = (1L << OUTCOME_BITS) - 1;
+
+    private final int windowSize;
+
+    private final AtomicLong nextIndex = new AtomicLong();
+
+    private final AtomicLongArray slots;
+
+    private final LongAdder numberOfCalls = new LongAdder();
+
+    private final LongAdder numberOfFailedCalls = new LongAdder();
+
+    private final LongAdder numberOfSlowCalls = new LongAdder();
+
+    private final LongAdder numberOfSlowFailedCalls = new LongAdder();
+
+    private final LongAdder totalDurationInMillis = new LongAdder();
+
+    public LockFreeSlidingWindowMetrics(int windowSize) {
+        this.windowSize = windowSize;
+        this.slots = new AtomicLongArray(windowSize);
+    }
+
+    @Override
+    public Snapshot record(long duration, TimeUnit durationUnit, Outcome outcome) {
+
+        int index = (int) (nextIndex.getAndIncrement() % windowSize);
+        long durationInMillis = durationUnit.toMillis(duration);
+
+        long evicted = slots.getAndSet(index, (durationInMillis << OUTCOME_BITS) | (outcome.ordinal() + 1));
+
+        add(outcome, durationInMillis, 1);
+        if (evicted != EMPTY) {
+            add(Outcome.values()[(int) (evicted & OUTCOME_MASK) - 1], evicted >>> OUTCOME_BITS, -1);
+        }
+
+        return getSnapshot();
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return new LockFreeSnapshot(numberOfCalls.intValue(), numberOfFailedCalls.intValue(), numberOfSlowCalls.intValue(),
+                                    numberOfSlowFailedCalls.intValue(), totalDurationInMillis.sum());
+    }
+
+    private void add(Outcome outcome, long durationInMillis, int delta) {
+        numberOfCalls.add(delta);
+        totalDurationInMillis.add(delta * durationInMillis);
+        switch (outcome) {
+            case ERROR -> numberOfFailedCalls.add(delta);
+            case SLOW_SUCCESS -> numberOfSlowCalls.add(delta);
+            case SLOW_ERROR -> {
+                numberOfSlowCalls.add(delta);
+                numberOfFailedCalls.add(delta);
+                numberOfSlowFailedCalls.add(delta);
+            }
+            default -> {
+            }
+        }
+    }
+
+    // 비율과 평균은 SnapshotImpl과 같은 방식으로 계산한다
+    private record LockFreeSnapshot(int totalNumberOfCalls, int numberOfFailedCalls, int totalNumberOfSlowCalls, int numberOfSlowFailedCalls,
+                                    long totalDurationInMillis) implements Snapshot {
+
+        @Override
+        public Duration getTotalDuration() {
+            return Duration.ofMillis(totalDurationInMillis);
+        }
+
+        @Override
+        public int getTotalNumberOfSlowCalls() {
+            return totalNumberOfSlowCalls;
+        }
+
+        @Override
+        public int getNumberOfSlowSuccessfulCalls() {
+            return totalNumberOfSlowCalls - numberOfSlowFailedCalls;
+        }
+
+        @Override
+        public int getNumberOfSlowFailedCalls() {
+            return numberOfSlowFailedCalls;
+        }
+
+        @Override
+        public float getSlowCallRate() {
+            if (totalNumberOfCalls == 0) {
+                return 0;
+            }
+            return totalNumberOfSlowCalls * 100.0f / totalNumberOfCalls;
+        }
+
+        @Override
+        public int getNumberOfSuccessfulCalls() {
+            return totalNumberOfCalls - numberOfFailedCalls;
+        }
+
+        @Override
+        public int getNumberOfFailedCalls() {
+            return numberOfFailedCalls;
+        }
+
+        @Override
+        public int getTotalNumberOfCalls() {
+            return totalNumberOfCalls;
+        }
+
+        @Override
+        public float getFailureRate() {
+            if (totalNumberOfCalls == 0) {
+                return 0;
+            }
+            return numberOfFailedCalls * 100.0f / totalNumberOfCalls;
+        }
+
+        @Override
+        public Duration getAverageDuration() {
+            if (totalNumberOfCalls == 0) {
+                return Duration.ZERO;
+            }
+            return Duration.ofMillis(totalDurationInMillis / totalNumberOfCalls);
+        }
+    }
+}
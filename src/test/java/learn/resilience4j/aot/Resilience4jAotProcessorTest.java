@@ -0,0 +1,50 @@
+package learn.resilience4j.aot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import learn.resilience4j.exception.BusinessException;
+import learn.resilience4j.service.Downstream;
+import learn.resilience4j.service.ServerBService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.javapoet.ClassName;
+import org.springframework.web.client.HttpServerErrorException;
+
+class Resilience4jAotProcessorTest {
+
+    @Test
+    @DisplayName("resilience4j 애너테이션이 붙은 빈 클래스와 설정한 예외 클래스를 리플렉션 힌트로 등록한다")
+    void t1() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "resilience4j.circuitbreaker.configs.default.record-exceptions[0]", HttpServerErrorException.class.getName(),
+            "resilience4j.retry.instances.serverB.ignore-exceptions[0]", BusinessException.class.getName()
+        )));
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("environment", environment);
+        beanFactory.registerBeanDefinition("serverBService", new RootBeanDefinition(ServerBService.class));
+        beanFactory.registerBeanDefinition("downstream", new RootBeanDefinition(Downstream.class));
+
+        DefaultGenerationContext generationContext = new DefaultGenerationContext(new ClassNameGenerator(ClassName.get("learn.resilience4j", "Test")),
+                                                                                  new InMemoryGeneratedFiles());
+        new Resilience4jAotProcessor().processAheadOfTime(beanFactory).applyTo(generationContext, null);
+
+        RuntimeHints hints = generationContext.getRuntimeHints();
+        assertThat(RuntimeHintsPredicates.reflection().onType(ServerBService.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Downstream.class)).rejects(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(HttpServerErrorException.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BusinessException.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,136 @@
+package learn.resilience4j.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import learn.resilience4j.cache.ResponseCacheProperties.InstanceProperties;
+import learn.resilience4j.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+class ResponseCacheTest {
+
+    AtomicLong nanos = new AtomicLong();
+
+    AtomicInteger calls = new AtomicInteger();
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // application.yml의 serverA와 같이 HttpServerErrorException을 기록하고 BusinessException을 무시한다
+    CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                                                                    .recordExceptions(HttpServerErrorException.class)
+                                                                    .ignoreExceptions(BusinessException.class)
+                                                                    .build();
+
+    ResponseCache cache = new ResponseCache("serverA", properties(), ResponseCache.servesStaleOn(circuitBreakerConfig), meterRegistry, nanos::get);
+
+    @Test
+    @DisplayName("ttl 안에서는 원격 서비스를 호출하지 않는다")
+    void t1() throws Throwable {
+        assertThat(cache.get("key", false, this::success)).isEqualTo("Success 1");
+
+        elapse(Duration.ofSeconds(5));
+        assertThat(cache.get("key", false, this::success)).isEqualTo("Success 1");
+        assertThat(calls).hasValue(1);
+
+        elapse(Duration.ofSeconds(5));
+        assertThat(cache.get("key", false, this::success)).isEqualTo("Success 2");
+        assertThat(calls).hasValue(2);
+
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("ttl이 지나고 서킷 브레이커가 OPEN이면 지난 응답을 대신 반환한다")
+    void t2() throws Throwable {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("serverA");
+        cache.get("key", false, this::success);
+
+        circuitBreaker.transitionToOpenState();
+        elapse(Duration.ofMinutes(1));
+
+        assertThat(cache.get("key", false, () -> circuitBreaker.executeSupplier(this::success))).isEqualTo("Success 1");
+        assertThat(count("stale")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("호출이 실패해도 max-staleness가 지났거나 캐시된 응답이 없으면 예외를 그대로 던진다")
+    void t3() throws Throwable {
+        assertThatThrownBy(() -> cache.get("key", false, this::failure)).isInstanceOf(HttpServerErrorException.class);
+
+        cache.get("key", false, this::success);
+        elapse(Duration.ofMinutes(11));
+
+        assertThatThrownBy(() -> cache.get("key", false, this::failure)).isInstanceOf(HttpServerErrorException.class);
+        assertThat(count("stale")).isZero();
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN처럼 bypassFresh이면 ttl 안이어도 원격 서비스를 호출한다")
+    void t4() throws Throwable {
+        cache.get("key", false, this::success);
+
+        assertThat(cache.get("key", true, this::success)).isEqualTo("Success 2");
+    }
+
+    @Test
+    @DisplayName("CallNotPermittedException도 실패로 보고 지난 응답을 반환한다")
+    void t5() throws Throwable {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("serverA");
+        circuitBreaker.transitionToForcedOpenState();
+        cache.get("key", false, this::success);
+        elapse(Duration.ofSeconds(11));
+
+        assertThatThrownBy(() -> circuitBreaker.executeSupplier(this::success)).isInstanceOf(CallNotPermittedException.class);
+        assertThat(cache.get("key", false, () -> circuitBreaker.executeSupplier(this::success))).isEqualTo("Success 1");
+    }
+
+    @Test
+    @DisplayName("서킷 브레이커가 무시하는 BusinessException과 Error는 지난 응답이 있어도 그대로 던진다")
+    void t6() throws Throwable {
+        cache.get("key", false, this::success);
+        elapse(Duration.ofSeconds(11));
+
+        assertThatThrownBy(() -> cache.get("key", false, () -> {
+            throw new BusinessException();
+        })).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> cache.get("key", false, () -> {
+            throw new OutOfMemoryError();
+        })).isInstanceOf(OutOfMemoryError.class);
+        assertThat(count("stale")).isZero();
+    }
+
+    private InstanceProperties properties() {
+        InstanceProperties properties = new InstanceProperties();
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setMaxStaleness(Duration.ofMinutes(10));
+        return properties;
+    }
+
+    private String success() {
+        return "Success " + calls.incrementAndGet();
+    }
+
+    private String failure() {
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+
+    private void elapse(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("response.cache.requests").tag("result", result).counter().count();
+    }
+}
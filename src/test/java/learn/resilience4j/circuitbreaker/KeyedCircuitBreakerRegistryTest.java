@@ -0,0 +1,109 @@
+package learn.resilience4j.circuitbreaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyedCircuitBreakerRegistryTest {
+
+    AtomicLong nanos = new AtomicLong();
+
+    List<String> addedNames = new ArrayList<>();
+
+    List<String> removedNames = new ArrayList<>();
+
+    // 애플리케이션의 CircuitBreakerRegistry. 키별 서킷 브레이커는 설정만 가져오고 여기에 등록하지 않는다
+    CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    // Resilience4jConfig.eventSinkCircuitBreakerRegistryEventConsumer 대신
+    RegistryEventConsumer<CircuitBreaker> registryEventConsumer = new RegistryEventConsumer<>() {
+        @Override
+        public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
+            addedNames.add(entryAddedEvent.getAddedEntry().getName());
+        }
+
+        @Override
+        public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
+            removedNames.add(entryRemoveEvent.getRemovedEntry().getName());
+        }
+
+        @Override
+        public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
+        }
+    };
+
+    @Test
+    @DisplayName("같은 키는 같은 서킷 브레이커를, 다른 키는 이름 인스턴스의 설정을 따르는 별도의 서킷 브레이커를 사용한다")
+    void t1() {
+        circuitBreakerRegistry.circuitBreaker("serverA", CircuitBreakerConfig.custom().minimumNumberOfCalls(3).build());
+        KeyedCircuitBreakerRegistry registry = registry(10, Duration.ofMinutes(1));
+
+        CircuitBreaker a = registry.circuitBreaker("serverA", "a.example.com");
+
+        assertThat(registry.circuitBreaker("serverA", "a.example.com")).isSameAs(a);
+        assertThat(registry.circuitBreaker("serverA", "b.example.com")).isNotSameAs(a);
+        assertThat(a.getName()).isEqualTo("serverA:a.example.com");
+        assertThat(a.getCircuitBreakerConfig().getMinimumNumberOfCalls()).isEqualTo(3);
+        assertThat(addedNames).containsExactly("serverA:a.example.com", "serverA:b.example.com");
+        assertThat(circuitBreakerRegistry.find("serverA:a.example.com")).isEmpty(); // 키마다 지표가 생기지 않는다
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 EntryRemovedEvent와 함께 제거되고, 애플리케이션의 CircuitBreakerRegistry에는 등록되지 않는다")
+    void t2() {
+        KeyedCircuitBreakerRegistry registry = registry(100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1_000; i++) {
+            registry.circuitBreaker("serverA", "host-" + i);
+        }
+
+        assertThat(registry.size()).isEqualTo(100);
+        assertThat(removedNames).hasSize(900);
+        assertThat(keyedCircuitBreakers()).isZero();
+    }
+
+    @Test
+    @DisplayName("유휴 시간이 지나면 제거된다")
+    void t3() {
+        KeyedCircuitBreakerRegistry registry = registry(100, Duration.ofMinutes(1));
+
+        CircuitBreaker a = registry.circuitBreaker("serverA", "a.example.com");
+        registry.circuitBreaker("serverA", "b.example.com");
+
+        nanos.addAndGet(Duration.ofSeconds(40).toNanos());
+        registry.circuitBreaker("serverA", "a.example.com");
+        nanos.addAndGet(Duration.ofSeconds(40).toNanos());
+
+        assertThat(registry.size()).isOne();
+        assertThat(removedNames).containsExactly("serverA:b.example.com");
+        assertThat(registry.circuitBreaker("serverA", "a.example.com")).isSameAs(a);
+    }
+
+    private KeyedCircuitBreakerRegistry registry(long maxSize, Duration expireAfterAccess) {
+
+        KeyedCircuitBreakerProperties properties = new KeyedCircuitBreakerProperties();
+        properties.setMaxSize(maxSize);
+        properties.setExpireAfterAccess(expireAfterAccess);
+
+        return new KeyedCircuitBreakerRegistry(circuitBreakerRegistry, properties, registryEventConsumer, nanos::get);
+    }
+
+    private long keyedCircuitBreakers() {
+        return circuitBreakerRegistry.getAllCircuitBreakers()
+                                     .stream()
+                                     .filter(circuitBreaker -> circuitBreaker.getName().contains(":"))
+                                     .count();
+    }
+}
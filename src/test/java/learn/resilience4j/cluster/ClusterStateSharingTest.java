@@ -0,0 +1,186 @@
+package learn.resilience4j.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 원격 서비스가 장애일 때 노드마다 라운드마다 한 번씩 호출하고, 모든 노드가 OPEN이 될 때까지의 라운드 수와 원격 서비스가 받은 실패 호출 수를 잰다
+@Slf4j
+class ClusterStateSharingTest {
+
+    private static final int NODES = 10;
+
+    private static final int MINIMUM_NUMBER_OF_CALLS = 10;
+
+    private static final int MAX_ROUNDS = 100;
+
+    List<ClusterStateSharing> sharings = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        sharings.forEach(ClusterStateSharing::destroy);
+    }
+
+    @Test
+    @DisplayName("상태를 공유하지 않으면 노드마다 minimum-number-of-calls만큼 실패해야 OPEN이 된다")
+    void t1() {
+        List<CircuitBreaker> fleet = fleet(false);
+
+        Outcome outcome = untilFleetOpen(fleet, () -> { });
+        log.info("without sharing: {}", outcome);
+
+        assertThat(outcome.rounds()).isEqualTo(MINIMUM_NUMBER_OF_CALLS);
+        assertThat(outcome.failedCalls()).isEqualTo(NODES * MINIMUM_NUMBER_OF_CALLS);
+    }
+
+    @Test
+    @DisplayName("윈도우 요약을 공유하면 노드 전체의 호출 수가 minimum-number-of-calls를 넘는 순간 모든 노드가 OPEN이 된다")
+    void t2() {
+        List<CircuitBreaker> fleet = fleet(true);
+
+        Outcome outcome = untilFleetOpen(fleet, () -> sharings.forEach(ClusterStateSharing::broadcastSummaries));
+        log.info("with sharing: {}", outcome);
+
+        assertThat(outcome.rounds()).isOne();
+        assertThat(outcome.failedCalls()).isEqualTo(NODES);
+    }
+
+    @Test
+    @DisplayName("정족수 이상의 노드가 스스로 OPEN이 되면 나머지 노드도 OPEN이 되고, 그렇게 OPEN이 된 노드는 정족수에 세지 않는다")
+    void t3() throws Exception {
+        List<CircuitBreaker> fleet = fleet(true);
+
+        fleet.get(0).transitionToOpenState();
+        awaitBroadcasts();
+        assertThat(fleet.subList(1, NODES)).allMatch(circuitBreaker -> circuitBreaker.getState() == State.CLOSED);
+
+        fleet.get(1).transitionToOpenState();
+        awaitBroadcasts();
+        assertThat(fleet).allMatch(circuitBreaker -> circuitBreaker.getState() == State.OPEN);
+
+        // 스스로 OPEN이 된 노드는 4번 하나뿐이다
+        for (int node = 0; node < 5; node++) {
+            fleet.get(node).transitionToClosedState();
+        }
+        fleet.get(4).transitionToOpenState();
+        awaitBroadcasts();
+        assertThat(fleet.subList(0, 4)).allMatch(circuitBreaker -> circuitBreaker.getState() == State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 확인을 거쳐 CLOSED가 된 노드는 아직 OPEN인 노드의 윈도우 때문에 다시 OPEN이 되지 않는다")
+    void t5() throws Exception {
+        List<CircuitBreaker> fleet = fleet(true);
+        untilFleetOpen(fleet, () -> sharings.forEach(ClusterStateSharing::broadcastSummaries));
+        awaitBroadcasts();
+
+        recover(fleet.get(0));
+        recover(fleet.get(1));
+        fleet.get(1).onSuccess(0, TimeUnit.NANOSECONDS);
+        awaitBroadcasts();
+        sharings.forEach(ClusterStateSharing::broadcastSummaries); // 0번은 CLOSED인 1번의 요약만 받는다
+        awaitBroadcasts();
+
+        assertThat(fleet.subList(0, 2)).allMatch(circuitBreaker -> circuitBreaker.getState() == State.CLOSED);
+        assertThat(fleet.subList(2, NODES)).allMatch(circuitBreaker -> circuitBreaker.getState() == State.OPEN);
+    }
+
+    @Test
+    @DisplayName("UDP로 다른 노드에 메시지를 보낸다")
+    void t4() throws Exception {
+        try (UdpClusterTransport receiver = new UdpClusterTransport(new InetSocketAddress("127.0.0.1", 0), List.of());
+             UdpClusterTransport sender = new UdpClusterTransport(new InetSocketAddress("127.0.0.1", 0),
+                                                                  List.of(new InetSocketAddress("127.0.0.1", receiver.getPort())))) {
+
+            BlockingQueue<ClusterMessage> received = new LinkedBlockingQueue<>();
+            receiver.subscribe(received::add);
+
+            ClusterMessage message = new ClusterMessage("node-1", "serverC", State.OPEN, false, 10, 7);
+            sender.broadcast(message);
+
+            assertThat(received.poll(1, TimeUnit.SECONDS)).isEqualTo(message);
+        }
+    }
+
+    private List<CircuitBreaker> fleet(boolean sharing) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                                                          .minimumNumberOfCalls(MINIMUM_NUMBER_OF_CALLS)
+                                                          .slidingWindowSize(MINIMUM_NUMBER_OF_CALLS)
+                                                          .failureRateThreshold(50)
+                                                          .waitDurationInOpenState(Duration.ofMinutes(1))
+                                                          .build();
+        InMemoryClusterTransport.Hub hub = new InMemoryClusterTransport.Hub();
+
+        List<CircuitBreaker> fleet = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            CircuitBreaker circuitBreaker = CircuitBreaker.of("serverC", config);
+            if (sharing) {
+                ClusterProperties properties = new ClusterProperties();
+                properties.setNodeId("node-" + node);
+                properties.setSummaryInterval(Duration.ofHours(1));
+
+                ClusterStateSharing clusterStateSharing = new ClusterStateSharing(properties, new InMemoryClusterTransport(hub));
+                clusterStateSharing.register(circuitBreaker);
+                sharings.add(clusterStateSharing);
+            }
+            fleet.add(circuitBreaker);
+        }
+        return fleet;
+    }
+
+    private Outcome untilFleetOpen(List<CircuitBreaker> fleet, Runnable afterRound) {
+        int failedCalls = 0;
+        for (int round = 1; round <= MAX_ROUNDS; round++) {
+            for (CircuitBreaker circuitBreaker : fleet) {
+                if (circuitBreaker.tryAcquirePermission()) {
+                    failedCalls++;
+                    circuitBreaker.onError(0, TimeUnit.NANOSECONDS, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+                }
+            }
+            afterRound.run();
+
+            if (fleet.stream().allMatch(circuitBreaker -> circuitBreaker.getState() == State.OPEN)) {
+                return new Outcome(round, failedCalls);
+            }
+        }
+        throw new AssertionError("Fleet did not open in " + MAX_ROUNDS + " rounds");
+    }
+
+    // 전이 메시지는 노드마다 다른 스레드에서 보낸다. 받은 메시지로 다른 노드가 전이하면 그 메시지도 보내야 하므로 한 번 더 기다린다
+    private void awaitBroadcasts() throws Exception {
+        for (int pass = 0; pass < 2; pass++) {
+            for (ClusterStateSharing sharing : sharings) {
+                sharing.awaitBroadcasts();
+            }
+        }
+    }
+
+    // permitted-number-of-calls-in-half-open-state만큼 성공해서 CLOSED가 된다
+    private void recover(CircuitBreaker circuitBreaker) {
+        circuitBreaker.transitionToHalfOpenState();
+        while (circuitBreaker.getState() == State.HALF_OPEN && circuitBreaker.tryAcquirePermission()) {
+            circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    private record Outcome(int rounds, int failedCalls) {
+
+    }
+}
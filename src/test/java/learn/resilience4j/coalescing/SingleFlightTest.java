@@ -0,0 +1,144 @@
+package learn.resilience4j.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+class SingleFlightTest {
+
+    private static final int CLIENTS = 50;
+
+    SingleFlight singleFlight = new SingleFlight("serverA", Duration.ofSeconds(2), new SimpleMeterRegistry());
+
+    CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("serverA");
+
+    AtomicInteger downstreamCalls = new AtomicInteger();
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 호출은 원격 서비스를 한 번만 호출하고 서킷 브레이커에도 한 번만 기록된다")
+    void t1() throws Exception {
+        List<Future<Object>> results = callConcurrently("key", () -> circuitBreaker.executeCallable(this::success));
+
+        for (Future<Object> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("Success");
+        }
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isOne();
+    }
+
+    @Test
+    @DisplayName("예외도 기다리던 모든 호출에 전달된다")
+    void t2() throws Exception {
+        List<Future<Object>> results = callConcurrently("key", () -> circuitBreaker.executeCallable(this::failure));
+
+        for (Future<Object> result : results) {
+            assertThat(result).failsWithin(1, TimeUnit.SECONDS)
+                              .withThrowableOfType(Exception.class)
+                              .withCauseInstanceOf(HttpServerErrorException.class);
+        }
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isOne();
+    }
+
+    @Test
+    @DisplayName("진행 중인 호출이 끝나면 다음 호출은 다시 원격 서비스를 호출한다")
+    void t3() throws Throwable {
+        release.countDown();
+
+        singleFlight.execute("key", this::success);
+        singleFlight.execute("key", this::success);
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("첫 호출이 멈추면 기다리던 호출은 max-wait 뒤에 TimeoutException으로 끝난다")
+    void t4() throws Exception {
+        SingleFlight bounded = new SingleFlight("serverA", Duration.ofMillis(100), new SimpleMeterRegistry());
+        CountDownLatch leading = new CountDownLatch(1);
+        Future<Object> leader = clients.submit(() -> {
+            try {
+                return bounded.execute("key", () -> {
+                    leading.countDown();
+                    return success();
+                });
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        leading.await();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bounded.execute("key", this::success)).isInstanceOf(TimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(downstreamCalls).hasValue(1);
+
+        release.countDown();
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("Success");
+    }
+
+    // 첫 호출이 원격 서비스에서 기다리는 동안 나머지가 모두 들어오면 첫 호출을 끝낸다
+    private List<Future<Object>> callConcurrently(Object key, SingleFlight.Call call) throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(CLIENTS);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            results.add(clients.submit(() -> {
+                started.countDown();
+                try {
+                    return singleFlight.execute(key, call);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        started.await();
+        Thread.sleep(100);
+        release.countDown();
+
+        return results;
+    }
+
+    private String success() throws InterruptedException {
+        downstreamCalls.incrementAndGet();
+        release.await();
+        return "Success";
+    }
+
+    private String failure() throws InterruptedException {
+        downstreamCalls.incrementAndGet();
+        release.await();
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+}
@@ -0,0 +1,97 @@
+package learn.resilience4j.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("가득 차면 기다리지 않고 거절하고, 꺼낸 만큼 다시 넣을 수 있다")
+    void t1() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> polled = new ArrayList<>();
+        Integer element;
+        while ((element = buffer.poll()) != null) {
+            polled.add(element);
+        }
+        assertThat(polled).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 넣어도 넣은 원소는 빠짐없이 한 번씩 꺼내진다")
+    void t2() throws Exception {
+        int producers = 4;
+        int perProducer = 100_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1_024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Integer>> accepted = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                accepted.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(i)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+
+            start.countDown();
+            long polled = 0;
+            while (!accepted.stream().allMatch(Future::isDone)) {
+                if (buffer.poll() != null) {
+                    polled++;
+                }
+            }
+            while (buffer.poll() != null) {
+                polled++;
+            }
+
+            int total = 0;
+            for (Future<Integer> future : accepted) {
+                total += future.get(1, TimeUnit.SECONDS);
+            }
+            assertThat(polled).isEqualTo(total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("이벤트 개수는 종류별로 모아서 한 줄로 넘기고, 넘긴 뒤에는 0부터 다시 센다")
+    void t3() {
+        EventCounters counters = new EventCounters("CircuitBreaker 'serverA'", CircuitBreakerEvent.Type.values());
+
+        for (int i = 0; i < 3; i++) {
+            counters.increment(CircuitBreakerEvent.Type.SUCCESS);
+        }
+        counters.increment(CircuitBreakerEvent.Type.NOT_PERMITTED);
+
+        assertThat(counters.drain()).isEqualTo("CircuitBreaker 'serverA': SUCCESS=3, NOT_PERMITTED=1");
+        assertThat(counters.drain()).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package learn.resilience4j.fallback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+class FallbackDispatchTableTest {
+
+    FallbackDispatchTable dispatchTable = new FallbackDispatchTable();
+
+    @Test
+    @DisplayName("예외 클래스와 가장 가까운 타입을 받는 fallback을 호출한다")
+    void t1() throws Throwable {
+        Service service = new Service();
+        FallbackDispatcher dispatcher = dispatcher(service, "call", "fallback", String.class);
+
+        Object[] args = {"a"};
+        assertThat(dispatcher.dispatch(service, args, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)))
+            .isEqualTo("a: HttpServerErrorException");
+        // HttpServerErrorException을 받는 fallback이 가장 가깝다
+        assertThat(dispatcher.dispatch(service, args, new HttpServerErrorException.BadGateway("", null, null, null)))
+            .isEqualTo("a: HttpServerErrorException");
+        assertThat(dispatcher.dispatch(service, args, CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("a"))))
+            .isEqualTo("a: Exception");
+    }
+
+    @Test
+    @DisplayName("맞는 fallback이 없는 예외는 그대로 던진다")
+    void t2() {
+        Service service = new Service();
+        FallbackDispatcher dispatcher = dispatcher(service, "callWithoutCatchAll", "timeoutFallback", String.class);
+        Error error = new AssertionError("boom");
+
+        assertThat(dispatcher.hasFallback(error)).isFalse();
+        assertThatThrownBy(() -> dispatcher.dispatch(service, new Object[]{"a"}, error)).isSameAs(error);
+    }
+
+    @Test
+    @DisplayName("fallback 메서드의 시그니처가 맞지 않으면 빈을 초기화할 때 실패한다")
+    void t3() {
+        assertThatThrownBy(() -> dispatchTable.postProcessBeforeInitialization(new MismatchedService(), "mismatchedService"))
+            .isInstanceOf(BeanCreationException.class)
+            .hasMessageContaining("wrongReturnType");
+    }
+
+    private FallbackDispatcher dispatcher(Object bean, String methodName, String fallbackMethodName, Class<?>... parameterTypes) {
+        dispatchTable.postProcessBeforeInitialization(bean, "service");
+        try {
+            Method method = bean.getClass().getDeclaredMethod(methodName, parameterTypes);
+            return dispatchTable.dispatcher(method, fallbackMethodName);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Service {
+
+        @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "a", fallbackMethod = "fallback")
+        public String call(String id) {
+            return id;
+        }
+
+        @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "a", fallbackMethod = "timeoutFallback")
+        public String callWithoutCatchAll(String id) {
+            return id;
+        }
+
+        private String fallback(String id, HttpServerErrorException e) {
+            return id + ": HttpServerErrorException";
+        }
+
+        private String fallback(String id, Exception e) {
+            return id + ": Exception";
+        }
+
+        private String timeoutFallback(String id, TimeoutException e) {
+            return id + ": TimeoutException";
+        }
+    }
+
+    static class MismatchedService {
+
+        @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "a", fallbackMethod = "wrongReturnType")
+        public String call() {
+            return "";
+        }
+
+        private Integer wrongReturnType(Exception e) {
+            return 0;
+        }
+    }
+}
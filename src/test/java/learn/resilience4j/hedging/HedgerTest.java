@@ -0,0 +1,182 @@
+package learn.resilience4j.hedging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import learn.resilience4j.hedging.HedgingProperties.InstanceProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+@Slf4j
+class HedgerTest {
+
+    private static final int CALLS = 1_000;
+
+    private static final int CLIENTS = 8;
+
+    ExecutorService executor = Executors.newCachedThreadPool();
+
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AtomicInteger downstreamCalls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        clients.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("97%는 5ms, 3%는 200ms 걸리는 원격 서비스에서 p95 이후 추가 호출하면 p99가 줄고 추가 부하는 예산 안이다")
+    void t1() throws Exception {
+        Hedger hedger = new Hedger("serverC", properties(), executor, meterRegistry);
+
+        List<Long> withoutHedging = run(() -> bimodal());
+        int callsWithoutHedging = downstreamCalls.getAndSet(0);
+
+        List<Long> withHedging = run(() -> hedger.execute(this::bimodal));
+        int callsWithHedging = downstreamCalls.get();
+
+        double addedLoad = (callsWithHedging - callsWithoutHedging) * 100.0 / callsWithoutHedging;
+        log.info("without hedging: p50={}ms, p99={}ms", percentile(withoutHedging, 0.5), percentile(withoutHedging, 0.99));
+        log.info("with hedging: p50={}ms, p99={}ms, delay={}ms, added load={}%",
+                 percentile(withHedging, 0.5), percentile(withHedging, 0.99), Duration.ofNanos(hedger.getDelayNanos()).toMillis(), addedLoad);
+
+        assertThat(percentile(withoutHedging, 0.99)).isGreaterThanOrEqualTo(200);
+        assertThat(percentile(withHedging, 0.99)).isLessThan(100);
+        assertThat(addedLoad).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("둘 다 실패하면 예외를 한 번만 던져서 서킷 브레이커에 한 번만 기록된다")
+    void t2() {
+        InstanceProperties properties = properties();
+        properties.setMinDelay(Duration.ofMillis(50)); // 지연을 관측시키는 동안 추가 호출하지 않도록
+        Hedger hedger = new Hedger("serverC", properties, executor, meterRegistry);
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("serverC");
+
+        // 지연을 관측시킨다
+        for (int i = 0; i < 100; i++) {
+            assertThat(circuitBreaker.executeCallable(() -> call(hedger, this::fast))).isEqualTo("Fast");
+        }
+
+        assertThatThrownBy(() -> circuitBreaker.executeCallable(() -> call(hedger, this::slowFailure))).isInstanceOf(HttpServerErrorException.class);
+        assertThat(downstreamCalls).hasValue(102);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isOne();
+    }
+
+    @Test
+    @DisplayName("관측한 지연이 부족하면 추가 호출하지 않는다")
+    void t3() throws Throwable {
+        Hedger hedger = new Hedger("serverC", properties(), executor, meterRegistry);
+
+        hedger.execute(this::fast);
+
+        assertThat(hedger.getDelayNanos()).isEqualTo(Long.MAX_VALUE);
+        assertThat(downstreamCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("실행기가 가득 차면 첫 호출을 호출 스레드에서 한다")
+    void t4() throws Throwable {
+        ThreadPoolExecutor bounded = new ThreadPoolExecutor(0, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            bounded.submit(() -> {
+                release.await();
+                return null;
+            });
+            Hedger hedger = new Hedger("serverC", properties(), bounded, meterRegistry);
+
+            assertThat(hedger.execute(this::fast)).isEqualTo("Fast");
+            assertThat(meterRegistry.get("hedging.calls").tag("result", "rejected").counter().count()).isOne();
+        } finally {
+            release.countDown();
+            bounded.shutdownNow();
+        }
+    }
+
+    private InstanceProperties properties() {
+        InstanceProperties properties = new InstanceProperties();
+        properties.setWindow(100);
+        return properties;
+    }
+
+    private List<Long> run(Hedger.Call call) throws Exception {
+
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            futures.add(clients.submit(() -> {
+                long start = System.nanoTime();
+                call(call);
+                return Duration.ofNanos(System.nanoTime() - start).toMillis();
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        for (Future<Long> future : futures) {
+            latencies.add(future.get());
+        }
+        Collections.sort(latencies);
+
+        return latencies;
+    }
+
+    private static Object call(Hedger hedger, Hedger.Call call) throws Exception {
+        return call(() -> hedger.execute(call));
+    }
+
+    private static Object call(Hedger.Call call) throws Exception {
+        try {
+            return call.call();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long percentile(List<Long> sortedLatencies, double percentile) {
+        return sortedLatencies.get((int) Math.ceil(percentile * sortedLatencies.size()) - 1);
+    }
+
+    private String bimodal() throws InterruptedException {
+        downstreamCalls.incrementAndGet();
+        Thread.sleep(ThreadLocalRandom.current().nextInt(100) < 3 ? 200 : 5);
+        return "Bimodal";
+    }
+
+    private String fast() throws InterruptedException {
+        downstreamCalls.incrementAndGet();
+        Thread.sleep(1);
+        return "Fast";
+    }
+
+    private String slowFailure() throws InterruptedException {
+        downstreamCalls.incrementAndGet();
+        Thread.sleep(100);
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "서버 장애 발생");
+    }
+}
@@ -0,0 +1,49 @@
+package learn.resilience4j.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyRecorderTest {
+
+    LatencyRecorder recorder = new LatencyRecorder("serverA", new LatencyHistogramProperties());
+
+    @Test
+    @DisplayName("rotate() 전까지는 지난 구간의 분포만 보이고, rotate() 후에는 그 사이에 기록한 분포가 보인다")
+    void t1() {
+        for (int i = 1; i <= 1_000; i++) {
+            recorder.recordAttempt(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertThat(recorder.getAttemptInterval().getTotalCount()).isZero();
+
+        recorder.rotate();
+
+        assertThat(recorder.getAttemptInterval().getTotalCount()).isEqualTo(1_000);
+        assertThat(recorder.getAttemptInterval().getValueAtPercentile(50)).isCloseTo(500_000, within(500L));
+        assertThat(recorder.getAttemptInterval().getValueAtPercentile(99)).isCloseTo(990_000, within(990L));
+        assertThat(recorder.getCallInterval().getTotalCount()).isZero();
+
+        recorder.rotate();
+
+        assertThat(recorder.getAttemptInterval().getTotalCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("시도와 호출 전체는 따로 기록되고, 범위를 넘는 지연은 최댓값으로 기록된다")
+    void t2() {
+        recorder.recordAttempt(TimeUnit.MILLISECONDS.toNanos(100));
+        recorder.recordAttempt(TimeUnit.MILLISECONDS.toNanos(100));
+        recorder.recordCall(TimeUnit.MILLISECONDS.toNanos(700));
+        recorder.recordCall(Duration.ofHours(1).toNanos());
+
+        recorder.rotate();
+
+        assertThat(recorder.getAttemptInterval().getTotalCount()).isEqualTo(2);
+        assertThat(recorder.getCallInterval().getTotalCount()).isEqualTo(2);
+        assertThat(recorder.getCallInterval().getMaxValue()).isCloseTo(Duration.ofMinutes(1).toNanos() / 1_000, within(60_000L));
+    }
+}
@@ -0,0 +1,64 @@
+package learn.resilience4j.lazy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LazyCircuitBreakerRegistryTest {
+
+    List<String> added = new ArrayList<>();
+
+    LazyCircuitBreakerRegistry registry = new LazyCircuitBreakerRegistry(
+        Map.of("default", CircuitBreakerConfig.custom().minimumNumberOfCalls(5).build()),
+        Map.of("serverA", CircuitBreakerConfig.custom().minimumNumberOfCalls(3).build(),
+               "serverC", CircuitBreakerConfig.custom().minimumNumberOfCalls(7).build()),
+        new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
+                added.add(entryAddedEvent.getAddedEntry().getName());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
+
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
+
+            }
+        },
+        Map.of());
+
+    @Test
+    @DisplayName("설정한 인스턴스는 처음 찾을 때 인스턴스 설정으로 만든다")
+    void t1() {
+        assertThat(registry.getAllCircuitBreakers()).isEmpty();
+        assertThat(registry.isMaterialized("serverA")).isFalse();
+
+        CircuitBreaker serverA = registry.circuitBreaker("serverA");
+
+        assertThat(serverA.getCircuitBreakerConfig().getMinimumNumberOfCalls()).isEqualTo(3);
+        assertThat(registry.isMaterialized("serverA")).isTrue();
+        assertThat(registry.isMaterialized("serverC")).isFalse();
+        assertThat(added).containsExactly("serverA");
+        assertThat(registry.circuitBreaker("serverA")).isSameAs(serverA);
+    }
+
+    @Test
+    @DisplayName("설정하지 않은 이름은 default 설정으로 만든다")
+    void t2() {
+        assertThat(registry.circuitBreaker("serverB").getCircuitBreakerConfig().getMinimumNumberOfCalls()).isEqualTo(5);
+        assertThat(registry.getInstanceNames()).containsExactlyInAnyOrder("serverA", "serverC");
+    }
+}
@@ -0,0 +1,140 @@
+package learn.resilience4j.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import learn.resilience4j.limiter.AdaptiveConcurrencyLimiterProperties.InstanceProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+@Slf4j
+class AdaptiveConcurrencyLimiterTest {
+
+    // 동시 호출이 CAPACITY를 넘으면 넘은 비율만큼 지연이 늘어나는 원격 서비스
+    private static final int CAPACITY = 20;
+
+    private static final long BASE_LATENCY_MILLIS = 100;
+
+    private static final int CLIENTS = 100;
+
+    @Test
+    @DisplayName("동시 호출에 따라 지연이 늘어나는 원격 서비스에서 한도는 처리 용량 근처로 수렴하고 초과 요청은 바로 거절된다")
+    void t1() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("serverC", new InstanceProperties());
+
+        log.info("without limiter: concurrency={}, latency={}ms, throughput={}/s",
+                 CLIENTS, latencyMillis(CLIENTS), throughput(CLIENTS));
+
+        for (int round = 1; round <= 200; round++) {
+            int acquired = 0;
+            while (acquired < CLIENTS && limiter.tryAcquire()) {
+                acquired++;
+            }
+
+            long latency = latencyMillis(acquired);
+            for (int i = 0; i < acquired; i++) {
+                limiter.onSuccess(latency, TimeUnit.MILLISECONDS);
+            }
+
+            if (round % 20 == 0) {
+                log.info("round {}: limit={}, concurrency={}, latency={}ms, throughput={}/s, rejected={}",
+                         round, limiter.getLimit(), acquired, latency, throughput(acquired), CLIENTS - acquired);
+            }
+        }
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isBetween(CAPACITY, CAPACITY * 2);
+        assertThat(latencyMillis(limiter.getLimit())).isLessThan(latencyMillis(CLIENTS));
+        assertThat(throughput(limiter.getLimit())).isEqualTo(throughput(CLIENTS));
+    }
+
+    @Test
+    @DisplayName("실패하면 한도를 줄이고, 원격 서비스에 닿지 않은 호출은 한도를 바꾸지 않는다")
+    void t2() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("serverC", new InstanceProperties());
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onIgnored();
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(18);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("한도만큼 호출 중이면 거절한다")
+    void t3() {
+        InstanceProperties properties = new InstanceProperties();
+        properties.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("serverC", properties);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("원격 서비스가 부하와 상관없이 느려지면 min-rtt-probe-interval 뒤에 최소 RTT를 다시 재고 한도를 다시 늘린다")
+    void t4() {
+        AtomicLong nanos = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("serverC", new InstanceProperties(), nanos::get);
+        long probeInterval = new InstanceProperties().getMinRttProbeInterval().toMillis();
+
+        run(limiter, nanos, 10, BASE_LATENCY_MILLIS);
+
+        // 동시 호출 수와 상관없이 지연이 두 배가 된다. 이전 지연이 섞이지 않은 구간이 끝날 때까지 한도는 줄어든다
+        long slowLatency = BASE_LATENCY_MILLIS * 2;
+        run(limiter, nanos, (int) (probeInterval * 2 / slowLatency) - 10, slowLatency);
+        int limitWhileSlow = limiter.getLimit();
+        run(limiter, nanos, (int) (probeInterval / slowLatency), slowLatency);
+        log.info("limit while slow={}, after probe={}", limitWhileSlow, limiter.getLimit());
+
+        assertThat(limitWhileSlow).isLessThan(20);
+        assertThat(limiter.getLimit()).isGreaterThan(CAPACITY * 2);
+    }
+
+    @Test
+    @DisplayName("타임아웃과 원격 서비스의 거절만 한도를 줄이는 실패로 본다")
+    void t5() {
+        assertThat(AdaptiveConcurrencyLimiter.isDropped(new TimeoutException())).isTrue();
+        assertThat(AdaptiveConcurrencyLimiter.isDropped(new ResourceAccessException("I/O error", new SocketTimeoutException()))).isTrue();
+        assertThat(AdaptiveConcurrencyLimiter.isDropped(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))).isTrue();
+        assertThat(AdaptiveConcurrencyLimiter.isDropped(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS))).isTrue();
+
+        assertThat(AdaptiveConcurrencyLimiter.isDropped(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR))).isFalse();
+        assertThat(AdaptiveConcurrencyLimiter.isDropped(new IllegalStateException())).isFalse();
+    }
+
+    // 라운드마다 한도만큼 동시에 호출하고 모두 latencyMillis 뒤에 성공한다
+    private static void run(AdaptiveConcurrencyLimiter limiter, AtomicLong nanos, int rounds, long latencyMillis) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (acquired < CLIENTS && limiter.tryAcquire()) {
+                acquired++;
+            }
+
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            for (int i = 0; i < acquired; i++) {
+                limiter.onSuccess(latencyMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static long latencyMillis(int concurrency) {
+        return BASE_LATENCY_MILLIS * Math.max(CAPACITY, concurrency) / CAPACITY;
+    }
+
+    private static long throughput(int concurrency) {
+        return concurrency * 1_000L / latencyMillis(concurrency);
+    }
+}
@@ -0,0 +1,140 @@
+package learn.resilience4j.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import learn.resilience4j.limiter.ClientRateLimiterProperties.Rule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+// serverA 규칙: 버킷 크기 10, 초당 5개
+class ClientRateLimiterTest {
+
+    AtomicLong nanos = new AtomicLong();
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("버킷 크기만큼 허용한 뒤 거절하고, 토큰이 채워지는 만큼 다시 허용한다")
+    void t1() {
+        ClientRateLimiter rateLimiter = rateLimiter(1000);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire("/serverA/success", "client")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "client")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400)); // 토큰 2개
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "client")).isZero();
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "client")).isZero();
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "client")).isPositive();
+
+        assertThat(meterRegistry.get("client.rate.limiter.rejected").tag("rule", "serverA").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("클라이언트마다 버킷을 따로 두고, 규칙에 맞지 않는 경로는 제한하지 않는다")
+    void t2() {
+        ClientRateLimiter rateLimiter = rateLimiter(1000);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("/serverA/success", "a");
+        }
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "a")).isPositive();
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "b")).isZero();
+        assertThat(rateLimiter.tryAcquire("/serverB/success", "a")).isZero();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 같은 버킷에서 동시에 가져가도 버킷 크기만큼만 허용한다")
+    void t3() throws InterruptedException {
+        ClientRateLimiter rateLimiter = rateLimiter(1000);
+        AtomicInteger permitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (rateLimiter.tryAcquire("/serverA/success", "client") == 0) {
+                        permitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(permitted).hasValue(10);
+    }
+
+    @Test
+    @DisplayName("클라이언트 수가 max-keys를 넘으면 오래된 버킷을 제거한다")
+    void t4() {
+        ClientRateLimiter rateLimiter = rateLimiter(100);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("/serverA/success", "evicted");
+        }
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "evicted")).isPositive();
+
+        for (int i = 0; i < 10_000; i++) {
+            rateLimiter.tryAcquire("/serverA/success", "client-" + i);
+        }
+        // 제거된 클라이언트는 가득 찬 버킷으로 다시 시작한다
+        assertThat(rateLimiter.tryAcquire("/serverA/success", "evicted")).isZero();
+    }
+
+    @Test
+    @DisplayName("등록하지 않은 API 키는 믿지 않고 원격 주소로 구분하므로, 요청마다 키를 바꿔도 버킷 크기만큼만 허용한다")
+    void t5() throws Exception {
+        ClientRateLimitFilter filter = new ClientRateLimitFilter(rateLimiter(1000), "X-API-Key", Set.of("issued"));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(filter(filter, "client-" + i).getStatus()).isEqualTo(200);
+        }
+        assertThat(filter(filter, "client-10").getStatus()).isEqualTo(429);
+        assertThat(filter(filter, null).getStatus()).isEqualTo(429);
+
+        // 발급한 키는 같은 주소에서 와도 버킷을 따로 둔다
+        assertThat(filter(filter, "issued").getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse filter(ClientRateLimitFilter filter, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/serverA/success");
+        request.setRemoteAddr("10.0.0.1");
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private ClientRateLimiter rateLimiter(long maxKeys) {
+        Rule rule = new Rule();
+        rule.setPath("/serverA/**");
+        rule.setCapacity(10);
+        rule.setRefillPerSecond(5);
+
+        ClientRateLimiterProperties properties = new ClientRateLimiterProperties();
+        properties.setMaxKeys(maxKeys);
+        properties.setExpireAfterAccess(Duration.ofMinutes(10));
+        properties.getRules().put("serverA", rule);
+        return new ClientRateLimiter(properties, meterRegistry, nanos::get);
+    }
+}
@@ -0,0 +1,126 @@
+package learn.resilience4j.prototype;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.core.metrics.FixedSizeSlidingWindowMetrics;
+import io.github.resilience4j.core.metrics.Metrics;
+import io.github.resilience4j.core.metrics.Metrics.Outcome;
+import io.github.resilience4j.core.metrics.Snapshot;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LockFreeSlidingWindowMetricsTest {
+
+    @Test
+    @DisplayName("CircuitBreakerTest와 같이 성공 1번, 실패 4번이면 실패율 80%")
+    void t1() {
+        Metrics metrics = new LockFreeSlidingWindowMetrics(100);
+
+        metrics.record(0, TimeUnit.MILLISECONDS, Outcome.SUCCESS);
+        for (int i = 0; i < 4; i++) {
+            metrics.record(0, TimeUnit.MILLISECONDS, Outcome.ERROR);
+        }
+
+        Snapshot snapshot = metrics.getSnapshot();
+        assertThat(snapshot.getTotalNumberOfCalls()).isEqualTo(5);
+        assertThat(snapshot.getNumberOfSuccessfulCalls()).isOne();
+        assertThat(snapshot.getNumberOfFailedCalls()).isEqualTo(4);
+        assertThat(snapshot.getFailureRate()).isEqualTo(80.0F);
+    }
+
+    @Test
+    @DisplayName("CircuitBreakerTest와 같이 느린 호출 3번 중 2번이 실패면 느린 호출 비율 100%, 실패율 66.67%")
+    void t2() {
+        Metrics metrics = new LockFreeSlidingWindowMetrics(100);
+
+        metrics.record(3, TimeUnit.SECONDS, Outcome.SLOW_SUCCESS);
+        metrics.record(3, TimeUnit.SECONDS, Outcome.SLOW_ERROR);
+        metrics.record(3, TimeUnit.SECONDS, Outcome.SLOW_ERROR);
+
+        Snapshot snapshot = metrics.getSnapshot();
+        assertThat(snapshot.getSlowCallRate()).isEqualTo(100.0F);
+        assertThat(snapshot.getNumberOfSlowSuccessfulCalls()).isOne();
+        assertThat(snapshot.getNumberOfSlowFailedCalls()).isEqualTo(2);
+        assertThat(snapshot.getFailureRate()).isEqualTo(2 * 100.0F / 3);
+        assertThat(snapshot.getAverageDuration().toSeconds()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("윈도우가 한 바퀴 넘게 돌아도 FixedSizeSlidingWindowMetrics와 같은 스냅샷")
+    void t3() {
+        Metrics expected = new FixedSizeSlidingWindowMetrics(10);
+        Metrics actual = new LockFreeSlidingWindowMetrics(10);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            Outcome outcome = Outcome.values()[random.nextInt(Outcome.values().length)];
+            long duration = random.nextInt(1_000);
+
+            assertSameSnapshot(actual.record(duration, TimeUnit.MILLISECONDS, outcome), expected.record(duration, TimeUnit.MILLISECONDS, outcome));
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 기록해도 카운터는 윈도우 크기를 넘지 않고 내용과 일치한다")
+    void t4() throws Exception {
+        Metrics metrics = new LockFreeSlidingWindowMetrics(100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    metrics.record(1, TimeUnit.MILLISECONDS, Outcome.ERROR);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        Snapshot snapshot = metrics.getSnapshot();
+        assertThat(snapshot.getTotalNumberOfCalls()).isEqualTo(100);
+        assertThat(snapshot.getNumberOfFailedCalls()).isEqualTo(100);
+        assertThat(snapshot.getTotalDuration().toMillis()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 같은 칸을 엇갈려 교체해도 결과와 지연의 짝이 어긋나지 않는다")
+    void t5() throws Exception {
+        Metrics metrics = new LockFreeSlidingWindowMetrics(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            Outcome outcome = thread % 2 == 0 ? Outcome.SUCCESS : Outcome.ERROR;
+            long duration = thread % 2 == 0 ? 1 : 1_000;
+            executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    metrics.record(duration, TimeUnit.MILLISECONDS, outcome);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        // 성공은 1ms, 실패는 1000ms에만 기록했다
+        Snapshot snapshot = metrics.getSnapshot();
+        assertThat(snapshot.getTotalNumberOfCalls()).isEqualTo(10);
+        assertThat(snapshot.getTotalDuration().toMillis())
+            .isEqualTo(snapshot.getNumberOfSuccessfulCalls() + 1_000L * snapshot.getNumberOfFailedCalls());
+    }
+
+    private void assertSameSnapshot(Snapshot actual, Snapshot expected) {
+        assertThat(actual.getTotalNumberOfCalls()).isEqualTo(expected.getTotalNumberOfCalls());
+        assertThat(actual.getNumberOfFailedCalls()).isEqualTo(expected.getNumberOfFailedCalls());
+        assertThat(actual.getNumberOfSuccessfulCalls()).isEqualTo(expected.getNumberOfSuccessfulCalls());
+        assertThat(actual.getTotalNumberOfSlowCalls()).isEqualTo(expected.getTotalNumberOfSlowCalls());
+        assertThat(actual.getNumberOfSlowFailedCalls()).isEqualTo(expected.getNumberOfSlowFailedCalls());
+        assertThat(actual.getNumberOfSlowSuccessfulCalls()).isEqualTo(expected.getNumberOfSlowSuccessfulCalls());
+        assertThat(actual.getFailureRate()).isEqualTo(expected.getFailureRate());
+        assertThat(actual.getSlowCallRate()).isEqualTo(expected.getSlowCallRate());
+        assertThat(actual.getTotalDuration()).isEqualTo(expected.getTotalDuration());
+        assertThat(actual.getAverageDuration()).isEqualTo(expected.getAverageDuration());
+    }
+}
@@ -0,0 +1,112 @@
+package learn.resilience4j.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.RetryConfig;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import learn.resilience4j.retry.RetryBackoffProperties.InstanceProperties;
+import learn.resilience4j.retry.RetryBackoffProperties.Type;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+@Slf4j
+class RetryBackoffTest {
+
+    private static final int CLIENTS = 100;
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    // 재시도 시각을 이 크기의 구간으로 나눠 센다
+    private static final long BUCKET_MILLIS = 50;
+
+    private static final HttpServerErrorException FAILURE = new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    @Test
+    @DisplayName("장애로 모든 클라이언트가 같은 순간에 실패하면, 고정 대기는 재시도가 한 구간에 몰리고 jitter는 흩어진다")
+    void t1() {
+        int fixedPeak = peakRetriesPerBucket(Type.FIXED);
+        int jitterPeak = peakRetriesPerBucket(Type.DECORRELATED_JITTER);
+        log.info("peak retries per {}ms - fixed: {}, decorrelated jitter: {}", BUCKET_MILLIS, fixedPeak, jitterPeak);
+
+        assertThat(fixedPeak).isEqualTo(CLIENTS);
+        assertThat(jitterPeak).isLessThan(CLIENTS / 3);
+    }
+
+    @Test
+    @DisplayName("Retry-After가 있으면 계산한 대기 대신 그 시간을 기다리고, max-retry-after를 넘지 않는다")
+    void t2() {
+        IntervalBiFunction<Object> backoff = backoff(Type.DECORRELATED_JITTER);
+
+        assertThat(backoff.apply(1, Either.left(withRetryAfter(HttpStatus.SERVICE_UNAVAILABLE, "2")))).isEqualTo(2_000);
+        assertThat(backoff.apply(1, Either.left(withRetryAfter(HttpStatus.SERVICE_UNAVAILABLE, "3600")))).isEqualTo(30_000);
+
+        String date = ZonedDateTime.now().plusSeconds(5).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        assertThat(backoff.apply(1, Either.left(withRetryAfter(HttpStatus.TOO_MANY_REQUESTS, date)))).isBetween(3_000L, 5_000L);
+
+        assertThat(backoff.apply(1, Either.left(FAILURE))).isBetween(500L, 1_500L);
+    }
+
+    @Test
+    @DisplayName("FIXED는 wait-duration을 그대로 사용한다")
+    void t3() {
+        IntervalBiFunction<Object> backoff = backoff(Type.FIXED);
+
+        assertThat(backoff.apply(1, Either.left(FAILURE))).isEqualTo(500);
+        assertThat(backoff.apply(3, Either.left(FAILURE))).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("application.yml의 retry-exceptions처럼 429를 재시도하므로 Retry-After를 따른다. 다른 4xx는 재시도하지 않는다")
+    void t4() {
+        RetryConfig config = RetryConfig.custom()
+                                        .retryExceptions(HttpServerErrorException.class, HttpClientErrorException.TooManyRequests.class)
+                                        .build();
+
+        assertThat(config.getExceptionPredicate().test(withRetryAfter(HttpStatus.TOO_MANY_REQUESTS, "2"))).isTrue();
+        assertThat(config.getExceptionPredicate().test(withRetryAfter(HttpStatus.NOT_FOUND, "2"))).isFalse();
+    }
+
+    // 모든 클라이언트가 0ms에 첫 호출이 실패하고, 원격 서비스가 계속 실패할 때 재시도 시각의 분포
+    private int peakRetriesPerBucket(Type type) {
+        Map<Long, Integer> retriesPerBucket = new TreeMap<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            IntervalBiFunction<Object> backoff = backoff(type);
+            long now = 0;
+            for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+                now += backoff.apply(attempt, Either.left(FAILURE));
+                retriesPerBucket.merge(now / BUCKET_MILLIS, 1, Integer::sum);
+            }
+        }
+        return retriesPerBucket.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    // application.yml의 resilience4j.retry.configs.default와 같은 wait-duration
+    private IntervalBiFunction<Object> backoff(Type type) {
+        InstanceProperties properties = new InstanceProperties();
+        properties.setType(type);
+
+        RetryConfig.Builder<Object> builder = RetryConfig.custom()
+                                                         .maxAttempts(MAX_ATTEMPTS)
+                                                         .waitDuration(Duration.ofMillis(500));
+        RetryBackoff.decorate(builder, properties);
+        return builder.build().getIntervalBiFunction();
+    }
+
+    private static Exception withRetryAfter(HttpStatus status, String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return status.is5xxServerError() ? HttpServerErrorException.create(status, status.getReasonPhrase(), headers, null, null)
+                                         : HttpClientErrorException.create(status, status.getReasonPhrase(), headers, null, null);
+    }
+}
@@ -0,0 +1,149 @@
+package learn.resilience4j.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import learn.resilience4j.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 정상 구간에 이어 장애 구간을 호출하고, 장애 구간에서 원격 서비스가 받은 호출 수 / 호출한 쪽의 호출 수(증폭률)를 비교한다
+@Slf4j
+class RetryBudgetTest {
+
+    private static final int HEALTHY_CALLS = 200;
+
+    private static final int OUTAGE_CALLS = 200;
+
+    AtomicInteger downstreamCalls = new AtomicInteger();
+
+    boolean outage;
+
+    @Test
+    @DisplayName("예산이 없으면 장애 동안 원격 서비스는 max-attempts배의 호출을 받는다")
+    void t1() {
+        Retry serverA = retry("serverA", null);
+        Retry serverB = retry("serverB", null);
+
+        double amplification = simulate(serverA, serverB);
+        log.info("without budget: {}", amplification);
+
+        assertThat(amplification).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("예산이 있으면 장애 동안의 재시도는 쌓아둔 예산만큼으로 제한된다")
+    void t2() {
+        RetryBudget budget = new RetryBudget(new RetryBudgetProperties(), new SimpleMeterRegistry());
+        Retry serverA = retry("serverA", budget);
+        Retry serverB = retry("serverB", budget);
+
+        double amplification = simulate(serverA, serverB);
+        log.info("with budget: {}, tokens: {}", amplification, budget.getTokens());
+
+        // 정상 구간에 쌓인 예산(최대 10)만큼만 재시도한다
+        assertThat(amplification).isCloseTo(1.0 + 10.0 / OUTAGE_CALLS, within(0.001));
+        assertThat(budget.getTokens()).isLessThan(1);
+    }
+
+    @Test
+    @DisplayName("예산과 상관없이 무시할 예외는 재시도하지 않고, 예산이 있으면 재시도해서 성공한다")
+    void t3() {
+        RetryBudget budget = new RetryBudget(new RetryBudgetProperties(), new SimpleMeterRegistry());
+        Retry retry = retry("serverC", budget);
+
+        assertThatThrownBy(() -> retry.executeSupplier(() -> {
+            downstreamCalls.incrementAndGet();
+            throw new BusinessException();
+        })).isInstanceOf(BusinessException.class);
+        assertThat(downstreamCalls).hasValue(1);
+
+        downstreamCalls.set(0);
+        String result = retry.executeSupplier(() -> {
+            if (downstreamCalls.incrementAndGet() == 1) {
+                throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return "Success";
+        });
+        assertThat(result).isEqualTo("Success");
+        assertThat(downstreamCalls).hasValue(2);
+        assertThat(budget.getTokens()).isCloseTo(9.1, within(0.001));
+    }
+
+    @Test
+    @DisplayName("마지막 시도의 실패는 예산을 확인하지 않고, 예산이 없어 멈춘 재시도는 무시한 예외로 세지 않는다")
+    void t4() {
+        RetryBudgetProperties properties = new RetryBudgetProperties();
+        properties.setMaxTokens(2);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RetryBudget budget = new RetryBudget(properties, meterRegistry);
+        Retry retry = retry("serverA", budget);
+
+        // 예산 2개로 두 번 재시도하고 마지막 시도에서 실패한다
+        assertThatThrownBy(() -> retry.executeSupplier(this::failure)).isInstanceOf(HttpServerErrorException.class);
+        assertThat(downstreamCalls).hasValue(3);
+        assertThat(meterRegistry.get("retry.budget.exhausted").counter().count()).isZero();
+
+        // 예산이 없으면 재시도하지 않는다
+        downstreamCalls.set(0);
+        assertThatThrownBy(() -> retry.executeSupplier(this::failure)).isInstanceOf(HttpServerErrorException.class);
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(meterRegistry.get("retry.budget.exhausted").counter().count()).isEqualTo(1);
+        assertThat(retry.getMetrics().getNumberOfFailedCallsWithoutRetryAttempt()).isZero();
+    }
+
+    private double simulate(Retry... retries) {
+        for (int i = 0; i < HEALTHY_CALLS; i++) {
+            retries[i % retries.length].executeSupplier(this::downstream);
+        }
+
+        outage = true;
+        downstreamCalls.set(0);
+        for (int i = 0; i < OUTAGE_CALLS; i++) {
+            Retry retry = retries[i % retries.length];
+            assertThatThrownBy(() -> retry.executeSupplier(this::downstream)).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        return (double) downstreamCalls.get() / OUTAGE_CALLS;
+    }
+
+    private String downstream() {
+        downstreamCalls.incrementAndGet();
+        if (outage) {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return "Success";
+    }
+
+    private String failure() {
+        downstreamCalls.incrementAndGet();
+        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    // application.yml의 resilience4j.retry.configs.default와 같은 설정. 대기 시간만 줄였다
+    private Retry retry(String name, RetryBudget budget) {
+        RetryConfig.Builder<Object> builder = RetryConfig.custom()
+                                                         .maxAttempts(3)
+                                                         .waitDuration(Duration.ofMillis(1))
+                                                         .retryExceptions(HttpServerErrorException.class)
+                                                         .ignoreExceptions(BusinessException.class);
+        if (budget == null) {
+            return Retry.of(name, builder.build());
+        }
+
+        budget.decorate(builder);
+        Retry retry = Retry.of(name, builder.build());
+        budget.register(retry);
+        return retry;
+    }
+}
@@ -0,0 +1,148 @@
+package learn.resilience4j.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+class CircuitBreakerSnapshotterTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    // 헤더는 44바이트이고 CRC는 헤더의 마지막 8바이트
+    private static final int FIRST_HEADER_CRC = 40;
+
+    private static final int SECOND_HEADER_CRC = 44 + 40;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("재시작한 노드는 OPEN 상태와 CLOSED 윈도우의 집계를 이어받는다")
+    void t1() throws Exception {
+        CircuitBreakerRegistry before = registry();
+        CircuitBreaker serverA = before.circuitBreaker("serverA");
+        for (int i = 0; i < 3; i++) {
+            serverA.onSuccess(0, TimeUnit.NANOSECONDS);
+        }
+        serverA.onSuccess(2, TimeUnit.SECONDS);
+        serverA.onError(0, TimeUnit.NANOSECONDS, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        before.circuitBreaker("serverC").transitionToOpenState();
+
+        CircuitBreakerSnapshotter snapshotter = snapshotter(before, Clock.fixed(NOW, ZoneOffset.UTC));
+        snapshotter.snapshot();
+        snapshotter.destroy();
+
+        CircuitBreakerRegistry after = registry();
+        CircuitBreakerSnapshotter restarted = snapshotter(after, Clock.fixed(NOW.plusSeconds(5), ZoneOffset.UTC));
+        assertThat(restarted.restore()).isEqualTo(2);
+        restarted.destroy();
+
+        CircuitBreaker.Metrics metrics = after.circuitBreaker("serverA").getMetrics();
+        assertThat(after.circuitBreaker("serverA").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(4);
+        assertThat(metrics.getNumberOfSlowSuccessfulCalls()).isOne();
+        assertThat(metrics.getNumberOfFailedCalls()).isOne();
+        assertThat(after.circuitBreaker("serverC").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("max-age보다 오래된 스냅샷과 두 헤더가 모두 깨진 스냅샷은 복원하지 않는다")
+    void t2() throws Exception {
+        CircuitBreakerRegistry before = registry();
+        before.circuitBreaker("serverC").transitionToOpenState();
+        CircuitBreakerSnapshotter snapshotter = snapshotter(before, Clock.fixed(NOW, ZoneOffset.UTC));
+        snapshotter.snapshot();
+        snapshotter.destroy();
+
+        CircuitBreakerSnapshotter stale = snapshotter(registry(), Clock.fixed(NOW.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+        assertThat(stale.restore()).isZero();
+        stale.destroy();
+
+        try (FileChannel channel = FileChannel.open(directory.resolve("circuitbreakers.snapshot"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), FIRST_HEADER_CRC);
+            channel.write(ByteBuffer.wrap(new byte[]{42}), SECOND_HEADER_CRC);
+        }
+        CircuitBreakerSnapshotter corrupted = snapshotter(registry(), Clock.fixed(NOW, ZoneOffset.UTC));
+        assertThat(corrupted.restore()).isZero();
+    }
+
+    @Test
+    @DisplayName("마지막 스냅샷을 쓰다가 깨지면 다른 헤더의 직전 스냅샷을 복원한다")
+    void t3() throws Exception {
+        CircuitBreakerRegistry before = registry();
+        before.circuitBreaker("serverC").transitionToOpenState();
+        CircuitBreakerSnapshotter snapshotter = snapshotter(before, Clock.fixed(NOW, ZoneOffset.UTC));
+        snapshotter.snapshot();
+
+        // destroy()의 마지막 스냅샷은 두 번째 헤더에 쓴다
+        before.circuitBreaker("serverA").transitionToOpenState();
+        snapshotter.destroy();
+        try (FileChannel channel = FileChannel.open(directory.resolve("circuitbreakers.snapshot"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), SECOND_HEADER_CRC);
+        }
+
+        CircuitBreakerRegistry after = registry();
+        CircuitBreakerSnapshotter restarted = snapshotter(after, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertThat(restarted.restore()).isEqualTo(2);
+        assertThat(after.circuitBreaker("serverA").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(after.circuitBreaker("serverC").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN이던 서킷 브레이커는 OPEN으로 복원하고 wait-duration-in-open-state 뒤에 HALF_OPEN이 된다")
+    void t4() throws Exception {
+        CircuitBreakerRegistry before = registry();
+        before.circuitBreaker("serverA").transitionToOpenState();
+        before.circuitBreaker("serverA").transitionToHalfOpenState();
+        before.circuitBreaker("serverC").transitionToOpenState();
+        CircuitBreakerSnapshotter snapshotter = snapshotter(before, Clock.fixed(NOW, ZoneOffset.UTC));
+        snapshotter.snapshot();
+        snapshotter.destroy();
+
+        CircuitBreakerRegistry after = registry();
+        CircuitBreakerSnapshotter restarted = snapshotter(after, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertThat(restarted.restore()).isEqualTo(2);
+        restarted.destroy();
+
+        CircuitBreaker serverA = after.circuitBreaker("serverA");
+        assertThat(serverA.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(after.circuitBreaker("serverC").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        serverA.transitionToHalfOpenState();
+        assertThat(serverA.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    // application.yml의 serverA, serverC처럼 설정으로 만든 서킷 브레이커
+    private CircuitBreakerRegistry registry() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                                                          .minimumNumberOfCalls(5)
+                                                          .slowCallDurationThreshold(Duration.ofSeconds(1))
+                                                          .recordExceptions(HttpServerErrorException.class)
+                                                          .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.circuitBreaker("serverA");
+        registry.circuitBreaker("serverC");
+        return registry;
+    }
+
+    private CircuitBreakerSnapshotter snapshotter(CircuitBreakerRegistry registry, Clock clock) {
+        CircuitBreakerSnapshotProperties properties = new CircuitBreakerSnapshotProperties();
+        properties.setPath(directory.resolve("circuitbreakers.snapshot"));
+        return new CircuitBreakerSnapshotter(properties, registry, clock);
+    }
+}
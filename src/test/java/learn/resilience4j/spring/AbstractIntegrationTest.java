@@ -6,9 +6,27 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.retry.Retry.Metrics;
 import io.github.resilience4j.retry.RetryRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -34,6 +52,9 @@ abstract class AbstractIntegrationTest {
     @Autowired
     protected WebTestClient webClient;
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     protected Metrics getRetryMetrics(String circuitBreakerName) {
 
         return retryRegistry.retry(circuitBreakerName).getMetrics();
@@ -71,4 +92,47 @@ abstract class AbstractIntegrationTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
     }
+
+    // 동시에 요청하고 그동안 Tomcat 워커 스레드 점유 수를 10ms 간격으로 샘플링한다
+    protected LoadResult callConcurrently(String uri, int concurrency) throws Exception {
+
+        Executor tomcatExecutor = tomcatExecutor();
+        AtomicInteger peakBusyThreads = new AtomicInteger(-1); // 가상 스레드 실행기는 스레드 풀이 아니므로 -1
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        if (tomcatExecutor instanceof ThreadPoolExecutor threadPool) {
+            sampler.scheduleAtFixedRate(() -> peakBusyThreads.accumulateAndGet(threadPool.getActiveCount(), Math::max),
+                                        0, 10, TimeUnit.MILLISECONDS);
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            long start = System.nanoTime();
+
+            List<Future<Integer>> futures = IntStream.range(0, concurrency)
+                                                     .mapToObj(index -> clients.submit(() -> restTemplate.getForEntity(uri, String.class)
+                                                                                                         .getStatusCode()
+                                                                                                         .value()))
+                                                     .toList();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            Map<Integer, Long> statusCounts = statuses.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            return new LoadResult(concurrency, elapsed, peakBusyThreads.get(), statusCounts);
+        } finally {
+            clients.shutdownNow();
+            sampler.shutdownNow();
+        }
+    }
+
+    private Executor tomcatExecutor() {
+
+        TomcatWebServer webServer = (TomcatWebServer) ((WebServerApplicationContext) applicationContext).getWebServer();
+
+        return webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+    }
 }
@@ -0,0 +1,44 @@
+package learn.resilience4j.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+// 요청 하나가 재시도 2회 x 500ms = 약 1초를 기다린다
+// 모든 요청이 재시도해야 하므로 재시도 예산은 끈다
+@Slf4j
+@TestPropertySource(properties = {
+    "server.tomcat.threads.max=" + AsyncRetryLoadTest.TOMCAT_THREADS,
+    "resilience4j.retry.budget.enabled=false"
+})
+class AsyncRetryLoadTest extends AbstractIntegrationTest {
+
+    static final int TOMCAT_THREADS = 10;
+
+    private static final int CONCURRENCY = 40;
+
+    @Test
+    @DisplayName("동기 재시도는 대기하는 동안 Tomcat 스레드를 점유해서 요청이 스레드 수만큼씩 처리된다")
+    void t1() throws Exception {
+        LoadResult result = callConcurrently("/serverB/failure", CONCURRENCY);
+        log.info("sync: {}, throughput: {}/s", result, result.throughput());
+
+        assertThat(result.statuses()).containsEntry(500, (long) CONCURRENCY);
+        assertThat(result.peakBusyThreads()).isEqualTo(TOMCAT_THREADS);
+        assertThat(result.elapsed()).isGreaterThanOrEqualTo(Duration.ofSeconds(3)); // 40 / 10 = 4번에 나눠 처리
+    }
+
+    @Test
+    @DisplayName("비동기 재시도는 대기하는 동안 Tomcat 스레드를 점유하지 않아서 모든 요청이 함께 대기한다")
+    void t2() throws Exception {
+        LoadResult result = callConcurrently("/serverB/async/failure", CONCURRENCY);
+        log.info("async: {}, throughput: {}/s", result, result.throughput());
+
+        assertThat(result.statuses()).containsEntry(500, (long) CONCURRENCY);
+        assertThat(result.elapsed()).isLessThan(Duration.ofSeconds(3));
+    }
+}
@@ -0,0 +1,163 @@
+package learn.resilience4j.spring;
+
+import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.CLOSED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import learn.resilience4j.batch.BatchExecutor;
+import learn.resilience4j.batch.BatchExecutor.Item;
+import learn.resilience4j.batch.BatchItemResult;
+import learn.resilience4j.batch.BatchProperties;
+import learn.resilience4j.service.Downstream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class BatchTest extends AbstractCircuitBreakerTest {
+
+    @Autowired
+    Downstream downstream;
+
+    Duration slowness;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker(SERVER_A).reset();
+        slowness = downstream.getSlowness();
+    }
+
+    // 다른 테스트 클래스가 같은 컨텍스트를 사용하므로 바꾼 상태를 되돌린다
+    @AfterEach
+    void tearDown() {
+        circuitBreakerRegistry.circuitBreaker(SERVER_A).reset();
+        downstream.setSlowness(slowness);
+    }
+
+    @Test
+    @DisplayName("항목마다 단건 엔드포인트와 같은 결과를 순서대로 응답하고, 결과는 serverA 서킷 브레이커에 항목 수만큼 기록된다")
+    void t1() {
+        BatchItemResult[] results = batch(List.of("success", "failure", "failureWithFallback"));
+
+        assertThat(results).extracting(BatchItemResult::index).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(200, 500, 200);
+        assertThat(results).extracting(BatchItemResult::fallback).containsExactly(false, false, true);
+        assertThat(results).extracting(BatchItemResult::shortCircuited).containsOnly(false);
+        assertThat(results[2].body()).startsWith("Recovered from HttpServerErrorException");
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker(SERVER_A).getMetrics();
+        assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(1);
+        assertThat(metrics.getNumberOfFailedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN에서는 허용 호출 수 3만큼만 호출하고 나머지는 차단한다. 3번 모두 성공하여 CLOSED")
+    void t2() {
+        transitionToOpen(SERVER_A);
+        transitionToHalfOpen(SERVER_A);
+
+        BatchItemResult[] results = batch(Collections.nCopies(5, "success"));
+
+        assertThat(results).extracting(BatchItemResult::shortCircuited).containsExactly(false, false, false, true, true);
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(200, 200, 200, 500, 500);
+        assertState(SERVER_A, CLOSED);
+    }
+
+    @Test
+    @DisplayName("OPEN이면 모든 항목을 호출하지 않고, 대비책이 있는 항목은 대비책으로 응답한다")
+    void t3() {
+        transitionToOpen(SERVER_A);
+
+        BatchItemResult[] results = batch(List.of("success", "failureWithFallback"));
+
+        assertThat(results).extracting(BatchItemResult::shortCircuited).containsOnly(true);
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(500, 200);
+        assertThat(results[1].fallback()).isTrue();
+        assertThat(results[1].body()).startsWith("Recovered: CircuitBreaker 'serverA' is OPEN");
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_A).getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("항목들을 병렬로 호출한다. 200ms 걸리는 원격 호출 20개가 1초 안에 끝난다")
+    void t4() {
+        downstream.setSlowness(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        BatchItemResult[] results = batch(Collections.nCopies(20, "slowness"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(results).extracting(BatchItemResult::body).containsOnly("Slowness");
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("항목 수가 batch.max-size(1000)를 넘으면 400")
+    void t5() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/serverA/batch", Collections.nCopies(1_001, "success"), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("알 수 없는 항목이 있으면 아무것도 호출하지 않고 400")
+    void t6() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/serverA/batch", List.of("success", "unknown"), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_A).getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("slowness 항목도 serverA TimeLimiter(2s)를 거치므로 3초 걸리는 원격 호출은 2초쯤에 500으로 끝나고 원격 호출도 취소된다")
+    void t7() throws Exception {
+        downstream.setSlowness(Duration.ofSeconds(3));
+
+        long start = System.nanoTime();
+        BatchItemResult[] results = batch(Collections.nCopies(5, "slowness"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(results).extracting(BatchItemResult::status).containsOnly(500);
+        assertThat(elapsed).isLessThan(Duration.ofMillis(2_500));
+        Thread.sleep(100);
+        assertThat(downstream.getInFlightCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("batch.timeout 안에 끝나지 않은 항목은 취소하고 TimeoutException으로 기록한다")
+    void t8() {
+        BatchProperties properties = new BatchProperties();
+        properties.setTimeout(Duration.ofMillis(100));
+        BatchExecutor executor = new BatchExecutor(properties);
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("batch");
+        try {
+            Item fast = new Item(() -> "Fast", null);
+            Item hung = new Item(() -> {
+                Thread.sleep(10_000);
+                return "Hung";
+            }, null);
+
+            long start = System.nanoTime();
+            List<BatchItemResult> results = executor.execute(circuitBreaker, List.of(fast, hung));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(results).extracting(BatchItemResult::status).containsExactly(200, 500);
+            assertThat(elapsed).isLessThan(Duration.ofSeconds(1));
+            assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isOne();
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private BatchItemResult[] batch(List<String> operations) {
+        ResponseEntity<BatchItemResult[]> response = restTemplate.postForEntity("/serverA/batch", operations, BatchItemResult[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+}
@@ -0,0 +1,153 @@
+package learn.resilience4j.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import learn.resilience4j.service.Downstream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+// Tomcat 스레드 20개 중 serverC는 bulkhead로 5개까지만 점유한다
+// 서킷 브레이커가 열리거나 재시도하면 serverC 호출 수가 달라지므로 재시도는 끄고 서킷 브레이커는 DISABLED로 둔다
+// 추가 호출(hedging)은 10개의 지연만 관측하면 시작하고 예산이 모자라지 않게 한다
+@Slf4j
+@TestPropertySource(properties = {
+    "server.tomcat.threads.max=" + BulkheadIsolationTest.TOMCAT_THREADS,
+    "resilience4j.bulkhead.instances.serverC.max-concurrent-calls=" + BulkheadIsolationTest.SERVER_C_CONCURRENT_CALLS,
+    "resilience4j.retry.instances.serverC.max-attempts=1",
+    "adaptive-concurrency-limiter.instances.serverC.initial-limit=200",
+    "hedging.instances.serverC.window=10",
+    "hedging.instances.serverC.max-hedge-ratio=1"
+})
+class BulkheadIsolationTest extends AbstractIntegrationTest {
+
+    static final int TOMCAT_THREADS = 20;
+
+    static final int SERVER_C_CONCURRENT_CALLS = 5;
+
+    private static final int SERVER_C_CLIENTS = 40;
+
+    @Autowired
+    Downstream downstream;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        downstream.setFailureLatency(Duration.ZERO);
+        downstream.setSlowness(Duration.ofSeconds(3));
+        circuitBreakerRegistry.circuitBreaker(SERVER_C).reset();
+    }
+
+    @Test
+    @DisplayName("serverC가 1초 동안 응답하지 않는 요청으로 포화되어도 serverA의 응답 시간은 그대로다")
+    void t1() throws Exception {
+        List<Long> baseline = serverALatencies();
+
+        downstream.setFailureLatency(Duration.ofSeconds(1));
+        circuitBreakerRegistry.circuitBreaker(SERVER_C).transitionToDisabledState();
+
+        AtomicBoolean saturating = new AtomicBoolean(true);
+        ExecutorService clients = Executors.newFixedThreadPool(SERVER_C_CLIENTS);
+        List<Long> saturated;
+        int peakInFlightCalls;
+        try {
+            downstream.resetPeakInFlightCalls();
+            for (int i = 0; i < SERVER_C_CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (saturating.get()) {
+                        restTemplate.getForEntity("/serverC/failure", String.class);
+                    }
+                });
+            }
+            Thread.sleep(200);
+
+            saturated = serverALatencies();
+            peakInFlightCalls = downstream.getPeakInFlightCalls(); // 포화시킨 동안의 최댓값. 다른 테스트의 호출은 포함하지 않는다
+        } finally {
+            saturating.set(false);
+            clients.shutdown();
+            clients.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        log.info("serverA latencies(ms) baseline: {}, while serverC is saturated: {}", baseline, saturated);
+
+        // bulkhead가 없으면 Tomcat 스레드가 모두 serverC에서 1초씩 블로킹되어 serverA 요청이 대기열에서 기다린다
+        assertThat(saturated).allSatisfy(latency -> assertThat(latency).isLessThan(500));
+        assertThat(peakInFlightCalls).isLessThanOrEqualTo(SERVER_C_CONCURRENT_CALLS);
+        assertThat(meterRegistry.get("bulkhead.calls").tags("name", SERVER_C, "type", "semaphore", "result", "rejected").counter().count())
+            .isPositive();
+    }
+
+    @Test
+    @DisplayName("스레드 풀 bulkhead는 스레드(10)와 대기열(20)이 찬 뒤의 요청을 거절한다")
+    void t2() throws Exception {
+        downstream.setSlowness(Duration.ofSeconds(1));
+
+        LoadResult result = callConcurrently("/serverC/async/slowness", 40);
+        log.info("thread pool bulkhead: {}", result);
+
+        assertThat(result.statuses()).containsEntry(200, 30L);
+        assertThat(meterRegistry.get("bulkhead.calls").tags("name", SERVER_C, "type", "thread-pool", "result", "rejected").counter().count())
+            .isEqualTo(10);
+        assertThat(meterRegistry.get("bulkhead.queue.depth").tags("name", SERVER_C, "type", "thread-pool").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("추가 호출이 이겨서 취소한 첫 호출이나 추가 호출은 원격 호출도 멈추므로 원격 호출 수가 bulkhead 제한을 넘지 않는다")
+    void t3() throws Exception {
+        downstream.setSlowness(Duration.ofMillis(20));
+        for (int i = 0; i < 20; i++) {
+            restTemplate.getForEntity("/serverC/slowness", String.class); // 지연을 관측시킨다
+        }
+
+        downstream.setSlowness(Duration.ofMillis(300));
+        circuitBreakerRegistry.circuitBreaker(SERVER_C).transitionToDisabledState();
+
+        AtomicBoolean saturating = new AtomicBoolean(true);
+        ExecutorService clients = Executors.newFixedThreadPool(TOMCAT_THREADS);
+        int peakInFlightCalls;
+        try {
+            downstream.resetPeakInFlightCalls();
+            for (int i = 0; i < TOMCAT_THREADS; i++) {
+                clients.submit(() -> {
+                    while (saturating.get()) {
+                        restTemplate.getForEntity("/serverC/slowness", String.class);
+                    }
+                });
+            }
+            Thread.sleep(1_500);
+
+            peakInFlightCalls = downstream.getPeakInFlightCalls();
+        } finally {
+            saturating.set(false);
+            clients.shutdown();
+            clients.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        log.info("peak in-flight while hedging: {}", peakInFlightCalls);
+
+        assertThat(meterRegistry.get("hedging.calls").tags("name", SERVER_C, "result", "hedge").counter().count()).isPositive();
+        assertThat(peakInFlightCalls).isLessThanOrEqualTo(SERVER_C_CONCURRENT_CALLS);
+    }
+
+    private List<Long> serverALatencies() {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            callSuccess(SERVER_A);
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return latencies;
+    }
+}
@@ -3,15 +3,23 @@ package learn.resilience4j.spring;
 import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.CLOSED;
 import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.HALF_OPEN;
 import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.github.resilience4j.circuitbreaker.IllegalStateTransitionException;
 import io.vavr.collection.Stream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 class CircuitBreakerTest extends AbstractCircuitBreakerTest {
 
+    // fallback으로 응답한 실패도 기록되므로 테스트 순서에 따라 앞선 실패가 남지 않도록 한다
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker(SERVER_A).reset();
+    }
+
     @Test
     @DisplayName("최소 5번 요청, 실패율 50% 이상으로 설정되어 OPEN")
     void t1() {
@@ -65,4 +73,13 @@ class CircuitBreakerTest extends AbstractCircuitBreakerTest {
     void t5() {
         callFailureWithFallback(SERVER_A);
     }
+
+    @Test
+    @DisplayName("Fallback으로 응답해도 서킷 브레이커에는 실패로 기록되어 OPEN")
+    void t6() {
+        Stream.range(0, 5).forEach(index -> callFailureWithFallback(SERVER_A));
+
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_A).getMetrics().getNumberOfFailedCalls()).isEqualTo(5);
+        assertState(SERVER_A, OPEN);
+    }
 }
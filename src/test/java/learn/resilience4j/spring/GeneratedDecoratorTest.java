@@ -0,0 +1,71 @@
+package learn.resilience4j.spring;
+
+import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.CLOSED;
+import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.retry.Retry.Metrics;
+import io.vavr.collection.Stream;
+import learn.resilience4j.service.ServerAService;
+import learn.resilience4j.service.ServerBService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+// AOP 프록시 대신 생성한 Decorator가 서킷 브레이커, 재시도, fallback을 처리해도 결과가 같다
+@TestPropertySource(properties = "generated-decorators.enabled=true")
+class GeneratedDecoratorTest extends AbstractIntegrationTest {
+
+    @Autowired
+    ServerAService serverAService;
+
+    @Autowired
+    ServerBService serverBService;
+
+    @AfterEach
+    void tearDown() {
+        circuitBreakerRegistry.circuitBreaker(SERVER_A).reset();
+    }
+
+    @Test
+    @DisplayName("서비스 빈은 생성한 Decorator다")
+    void t1() {
+        assertThat(AopUtils.getTargetClass(serverAService).getSimpleName()).isEqualTo("ServerAServiceDecorator");
+        assertThat(AopUtils.getTargetClass(serverBService).getSimpleName()).isEqualTo("ServerBServiceDecorator");
+    }
+
+    @Test
+    @DisplayName("최소 5번 요청, 실패율 50% 이상으로 설정되어 OPEN")
+    void t2() {
+        Stream.range(0, 4).forEach(index -> callFailure(SERVER_A));
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_A).getState()).isEqualTo(CLOSED);
+
+        callFailure(SERVER_A);
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_A).getState()).isEqualTo(OPEN);
+    }
+
+    @Test
+    @DisplayName("예외 타입에 맞는 fallback을 호출한다")
+    void t3() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/" + SERVER_A + "/failureWithFallback", String.class);
+        assertThat(response.getBody()).startsWith("Recovered from HttpServerErrorException");
+
+        transitionToOpen(SERVER_A);
+        response = restTemplate.getForEntity("/" + SERVER_A + "/failureWithFallback", String.class);
+        assertThat(response.getBody()).startsWith("Recovered: CircuitBreaker 'serverA' is OPEN");
+    }
+
+    @Test
+    @DisplayName("호출 실패 시 Retry는 3회 수행")
+    void t4() {
+        Metrics metrics = getRetryMetrics(SERVER_B);
+        long failedWithRetry = metrics.getNumberOfFailedCallsWithRetryAttempt();
+
+        callFailure(SERVER_B);
+        assertThat(metrics.getNumberOfFailedCallsWithRetryAttempt()).isEqualTo(failedWithRetry + 1);
+    }
+}
@@ -0,0 +1,11 @@
+package learn.resilience4j.spring;
+
+import java.time.Duration;
+import java.util.Map;
+
+record LoadResult(int requests, Duration elapsed, int peakBusyThreads, Map<Integer, Long> statuses) {
+
+    double throughput() {
+        return requests * 1_000.0 / Math.max(elapsed.toMillis(), 1);
+    }
+}
@@ -0,0 +1,35 @@
+package learn.resilience4j.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import learn.resilience4j.service.Downstream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@Slf4j
+@TestPropertySource(properties = {
+    "server.tomcat.threads.max=" + PlatformThreadInFlightTest.TOMCAT_THREADS,
+    "downstream.slowness=500ms"
+})
+class PlatformThreadInFlightTest extends AbstractIntegrationTest {
+
+    static final int TOMCAT_THREADS = 10;
+
+    private static final int CONCURRENCY = 40;
+
+    @Autowired
+    Downstream downstream;
+
+    @Test
+    @DisplayName("플랫폼 스레드에서는 동시 원격 호출 수가 Tomcat 스레드 수로 제한된다")
+    void t1() throws Exception {
+        LoadResult result = callConcurrently("/serverA/slowness", CONCURRENCY);
+        log.info("platform threads: {}, peak in-flight: {}", result, downstream.getPeakInFlightCalls());
+
+        assertThat(result.statuses()).containsEntry(200, (long) CONCURRENCY);
+        assertThat(downstream.getPeakInFlightCalls()).isEqualTo(TOMCAT_THREADS);
+    }
+}
@@ -0,0 +1,117 @@
+package learn.resilience4j.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+// 느린 원격 서비스(200ms)에 1,000개의 연결로 동시에 요청해서 서블릿 엔드포인트와 리액티브 엔드포인트를 비교한다
+// 두 엔드포인트 모두 같은 Tomcat에서 실행된다. 리액티브 엔드포인트는 WebFlux(Netty)가 아니라 Spring MVC의 서블릿 비동기 요청이므로
+// 이 비교는 블로킹 호출과 Mono를 반환하는 호출의 차이이고, Netty 이벤트 루프의 성능은 재지 않는다
+@Slf4j
+@TestPropertySource(properties = {
+    "downstream.slowness=200ms",
+    "resilience4j.bulkhead.instances.serverA.max-concurrent-calls=2000"
+})
+class ReactiveLoadComparisonTest extends AbstractIntegrationTest {
+
+    private static final int CONNECTIONS = 1_000;
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    @DisplayName("Mono를 반환하는 엔드포인트는 기다리는 동안 Tomcat 스레드를 반환하므로 스레드 수(200)에 제한되지 않고 1,000개의 요청을 한 번에 처리한다")
+    void t1() {
+        WebClient client = loadClient();
+
+        Summary servlet = load(client, "/serverA/slowness");
+        Summary reactive = load(client, "/reactive/serverA/slowness");
+        log.info("servlet: {}", servlet);
+        log.info("reactive: {}", reactive);
+
+        assertThat(servlet.succeeded()).isEqualTo(CONNECTIONS);
+        assertThat(reactive.succeeded()).isEqualTo(CONNECTIONS);
+        assertThat(reactive.p99()).isLessThan(servlet.p99());
+        assertThat(reactive.throughput()).isGreaterThan(servlet.throughput());
+    }
+
+    private WebClient loadClient() {
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("load")
+                                                                  .maxConnections(CONNECTIONS)
+                                                                  .pendingAcquireMaxCount(-1)
+                                                                  .build();
+
+        return WebClient.builder()
+                        .baseUrl("http://localhost:" + port)
+                        .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                        .build();
+    }
+
+    private Summary load(WebClient client, String uri) {
+
+        long start = System.nanoTime();
+
+        List<Long> latencies = Flux.range(0, CONNECTIONS)
+                                   .flatMap(index -> timed(client, uri), CONNECTIONS)
+                                   .filter(latency -> latency >= 0)
+                                   .sort()
+                                   .collectList()
+                                   .block(Duration.ofMinutes(1));
+
+        return new Summary(latencies, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // 실패하면 -1
+    private Mono<Long> timed(WebClient client, String uri) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get()
+                         .uri(uri)
+                         .retrieve()
+                         .toBodilessEntity()
+                         .map(response -> Duration.ofNanos(System.nanoTime() - start).toMillis())
+                         .onErrorReturn(-1L);
+        });
+    }
+
+    record Summary(List<Long> sortedLatencies, Duration elapsed) {
+
+        int succeeded() {
+            return sortedLatencies.size();
+        }
+
+        long p50() {
+            return percentile(0.50);
+        }
+
+        long p99() {
+            return percentile(0.99);
+        }
+
+        double throughput() {
+            return succeeded() * 1_000.0 / Math.max(elapsed.toMillis(), 1);
+        }
+
+        private long percentile(double percentile) {
+            return sortedLatencies.get((int) Math.ceil(percentile * sortedLatencies.size()) - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "succeeded=%d, p50=%dms, p99=%dms, elapsed=%dms, throughput=%.1f/s".formatted(succeeded(), p50(), p99(), elapsed.toMillis(), throughput());
+        }
+    }
+}
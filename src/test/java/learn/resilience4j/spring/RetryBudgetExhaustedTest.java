@@ -0,0 +1,54 @@
+package learn.resilience4j.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import learn.resilience4j.service.ServerCService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpServerErrorException;
+
+// 재시도 예산을 비워 둔다. 성공한 호출이 있어도 쌓이지 않는다
+// serverC는 base-config 없이 설정한 인스턴스다. 시도마다 안쪽의 serverC 서킷 브레이커에 기록되므로 원격 호출 수를 셀 수 있다
+@TestPropertySource(properties = "resilience4j.retry.budget.max-tokens=0")
+class RetryBudgetExhaustedTest extends AbstractIntegrationTest {
+
+    @Autowired
+    ServerCService serverCService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        circuitBreakerRegistry.circuitBreaker(SERVER_C).reset();
+    }
+
+    @Test
+    @DisplayName("예산이 없으면 /serverC/failure는 재시도하지 않고 원격 서비스를 한 번만 호출한다")
+    void t1() {
+        double exhausted = meterRegistry.get("retry.budget.exhausted").counter().count();
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/serverC/failure", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_C).getMetrics().getNumberOfFailedCalls()).isOne();
+        assertThat(meterRegistry.get("retry.budget.exhausted").counter().count()).isEqualTo(exhausted + 1);
+    }
+
+    @Test
+    @DisplayName("@Retry 애스펙트를 거쳐도 원래 예외를 그대로 던진다")
+    void t2() {
+        double exhausted = meterRegistry.get("retry.budget.exhausted").counter().count();
+
+        assertThatThrownBy(serverCService::failure).isExactlyInstanceOf(HttpServerErrorException.class);
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVER_C).getMetrics().getNumberOfFailedCalls()).isOne();
+        assertThat(meterRegistry.get("retry.budget.exhausted").counter().count()).isEqualTo(exhausted + 1);
+    }
+}
@@ -0,0 +1,80 @@
+package learn.resilience4j.spring;
+
+import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import learn.resilience4j.service.Downstream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+// 제한 시간 300ms, 느린 호출 기준 100ms
+@Slf4j
+@TestPropertySource(properties = {
+    "resilience4j.timelimiter.configs.default.timeout-duration=300ms",
+    "resilience4j.circuitbreaker.instances.serverA.slow-call-duration-threshold=100ms"
+})
+class TimeLimiterTest extends AbstractCircuitBreakerTest {
+
+    @Autowired
+    Downstream downstream;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker(SERVER_A).reset();
+    }
+
+    @Test
+    @DisplayName("원격 서비스가 제한 시간을 넘기면 인터럽트로 취소되고 TimeoutException(느린 실패)이 기록되어 OPEN")
+    void t1() throws Exception {
+        downstream.setSlowness(Duration.ofSeconds(3));
+
+        Stream.range(0, 5).forEach(index -> callSlowness(500));
+        assertState(SERVER_A, OPEN);
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker(SERVER_A).getMetrics();
+        assertThat(metrics.getNumberOfFailedCalls()).isEqualTo(5);
+        assertThat(metrics.getNumberOfSlowFailedCalls()).isEqualTo(5);
+
+        Thread.sleep(100);
+        assertThat(downstream.getInFlightCalls()).isZero(); // 3초를 기다리지 않고 스레드가 반환되었다
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 성공해도 느린 호출 비율이 50% 이상이면 OPEN")
+    void t2() {
+        downstream.setSlowness(Duration.ofMillis(150));
+
+        Stream.range(0, 5).forEach(index -> callSlowness(200));
+        assertState(SERVER_A, OPEN);
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker(SERVER_A).getMetrics();
+        assertThat(metrics.getNumberOfSlowSuccessfulCalls()).isEqualTo(5);
+        assertThat(metrics.getSlowCallRate()).isEqualTo(100.0F);
+    }
+
+    @Test
+    @DisplayName("원격 서비스의 지연이 3초로 늘어나도 요청은 제한 시간 안에 끝나고 원격 호출 스레드를 붙잡지 않는다")
+    void t3() throws Exception {
+        downstream.setSlowness(Duration.ofSeconds(3));
+        circuitBreakerRegistry.circuitBreaker(SERVER_A).transitionToDisabledState(); // OPEN되지 않고 모든 요청이 원격 서비스를 호출하도록
+
+        LoadResult result = callConcurrently("/serverA/slowness", 20);
+        Thread.sleep(100);
+        log.info("{}, in-flight after: {}", result, downstream.getInFlightCalls());
+
+        assertThat(result.statuses()).containsEntry(500, 20L);
+        assertThat(result.elapsed()).isLessThan(Duration.ofSeconds(1));
+        assertThat(downstream.getInFlightCalls()).isZero();
+    }
+
+    private void callSlowness(int expectedStatus) {
+        assertThat(restTemplate.getForEntity("/serverA/slowness", String.class).getStatusCode().value()).isEqualTo(expectedStatus);
+    }
+}
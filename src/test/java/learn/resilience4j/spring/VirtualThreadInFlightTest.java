@@ -0,0 +1,41 @@
+package learn.resilience4j.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import learn.resilience4j.service.Downstream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+// spring.threads.virtual.enabled는 Java 21 이상에서만 동작한다. Java 17 빌드에서는 ./gradlew testJava21로 실행한다
+@Slf4j
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = {
+    "spring.threads.virtual.enabled=true",
+    "server.tomcat.threads.max=10", // 가상 스레드에서는 무시된다
+    "downstream.slowness=500ms",
+    "resilience4j.bulkhead.instances.serverA.max-concurrent-calls=" + VirtualThreadInFlightTest.MAX_CONCURRENT_CALLS
+})
+class VirtualThreadInFlightTest extends AbstractIntegrationTest {
+
+    static final int MAX_CONCURRENT_CALLS = 30;
+
+    private static final int CONCURRENCY = 40;
+
+    @Autowired
+    Downstream downstream;
+
+    @Test
+    @DisplayName("가상 스레드에서는 동시 원격 호출 수가 bulkhead로 제한되고 초과 요청은 거절된다")
+    void t1() throws Exception {
+        LoadResult result = callConcurrently("/serverA/slowness", CONCURRENCY);
+        log.info("virtual threads: {}, peak in-flight: {}", result, downstream.getPeakInFlightCalls());
+
+        assertThat(downstream.getPeakInFlightCalls()).isEqualTo(MAX_CONCURRENT_CALLS);
+        assertThat(result.statuses()).containsEntry(200, (long) MAX_CONCURRENT_CALLS);
+    }
+}